@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+#
+# Measures request throughput of a running instance, to compare the default (platform thread) build with the
+# virtual-threads build under identical load. Run it once against each mode on the same machine and database.
+#
+# Usage: scripts/load-test.sh [base-url] [duration] [concurrency levels...]
+#   scripts/load-test.sh http://localhost:8080 30s 50 200 1000
+#
+# Requires hey (https://github.com/rakyll/hey). Start the service with the rate limiter effectively disabled,
+# otherwise it, not the thread model, is what gets measured:
+#   java -jar target/crypto-recommendation-service-0.0.1-SNAPSHOT.jar \
+#        --crypto.rate-limit.requests-per-minute=100000000
+#   java -jar target/crypto-recommendation-service-0.0.1-SNAPSHOT.jar --spring.profiles.active=virtual-threads \
+#        --crypto.rate-limit.requests-per-minute=100000000        (jar built with mvn -Pvirtual-threads package)
+
+set -euo pipefail
+
+BASE_URL=${1:-http://localhost:8080}
+DURATION=${2:-30s}
+shift $(( $# > 2 ? 2 : $# ))
+LEVELS=("$@")
+if [ ${#LEVELS[@]} -eq 0 ]; then
+  LEVELS=(50 200 1000)
+fi
+
+command -v hey >/dev/null || { echo "hey is required: https://github.com/rakyll/hey" >&2; exit 1; }
+
+# Loaded data is kept, so repeated runs only re-upsert it
+curl -fsS -u admin:adminPass -X POST "$BASE_URL/cryptos/load-data" -o /dev/null || true
+
+# Cached and ETag-served endpoints barely touch the database; the export reads it on every call, so it shows
+# the effect of blocking JDBC calls on the request threads
+ENDPOINTS=(
+  "/cryptos/BTC/stats"
+  "/cryptos/BTC/prices?resolution=raw&from=2022-01-10T00:00:00Z&to=2022-01-12T00:00:00Z"
+  "/cryptos/BTC/export?from=2022-01-10T00:00:00Z&to=2022-01-12T00:00:00Z"
+)
+
+printf '%-80s %8s %12s %10s %10s\n' "endpoint" "conc" "req/s" "p50 (s)" "p99 (s)"
+for endpoint in "${ENDPOINTS[@]}"; do
+  for concurrency in "${LEVELS[@]}"; do
+    report=$(hey -z "$DURATION" -c "$concurrency" "$BASE_URL$endpoint")
+    rps=$(awk '/Requests\/sec/ {print $2}' <<<"$report")
+    p50=$(awk '/ 50% in/ {print $3}' <<<"$report")
+    p99=$(awk '/ 99% in/ {print $3}' <<<"$report")
+    printf '%-80s %8s %12s %10s %10s\n' "$endpoint" "$concurrency" "$rps" "$p50" "$p99"
+  done
+done
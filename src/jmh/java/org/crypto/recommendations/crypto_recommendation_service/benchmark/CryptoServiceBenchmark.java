@@ -0,0 +1,108 @@
+package org.crypto.recommendations.crypto_recommendation_service.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.crypto.recommendations.crypto_recommendation_service.config.CryptoConfig;
+import org.crypto.recommendations.crypto_recommendation_service.model.PriceRollup;
+import org.crypto.recommendations.crypto_recommendation_service.model.RollupGranularity;
+import org.crypto.recommendations.crypto_recommendation_service.repository.CryptoPriceRepository;
+import org.crypto.recommendations.crypto_recommendation_service.service.CryptoService;
+import org.crypto.recommendations.crypto_recommendation_service.service.RollupService;
+import org.crypto.recommendations.crypto_recommendation_service.store.PriceSeries;
+import org.crypto.recommendations.crypto_recommendation_service.store.PriceStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The read computations of {@link CryptoService} over an in-memory store holding {@code ticks} ticks spread
+ * over five symbols. The service is used without its Spring proxy, so the response caches are bypassed and
+ * the underlying computation is measured. Daily rollups are served from memory to leave the database out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CryptoServiceBenchmark {
+
+    @Param({"1000", "100000", "10000000", "100000000"})
+    long ticks;
+
+    private CryptoService cryptoService;
+    private String day;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PriceStore priceStore = new PriceStore();
+        Map<Instant, List<PriceRollup>> dailyRollups = new HashMap<>();
+        long perSymbol = ticks / SyntheticPrices.SYMBOLS.length;
+        for (String symbol : SyntheticPrices.SYMBOLS) {
+            PriceSeries series = priceStore.getOrCreate(symbol);
+            SyntheticPrices.generate(symbol, perSymbol, series::put);
+            long middle = SyntheticPrices.START_MILLIS + perSymbol / 2 * SyntheticPrices.STEP_MILLIS;
+            long dayStart = RollupGranularity.DAILY.bucketStart(middle);
+            double[] bar = {Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+            series.scan(dayStart, RollupGranularity.DAILY.bucketEnd(dayStart), (timestamp, price) -> {
+                bar[0] = Math.min(bar[0], price);
+                bar[1] = Math.max(bar[1], price);
+            });
+            dailyRollups.computeIfAbsent(Instant.ofEpochMilli(dayStart), start -> new ArrayList<>())
+                    .add(new PriceRollup(symbol, RollupGranularity.DAILY, Instant.ofEpochMilli(dayStart), bar[0], bar[1], bar[0], bar[1], 1L));
+            day = LocalDate.ofInstant(Instant.ofEpochMilli(dayStart), ZoneOffset.UTC).toString();
+        }
+
+        CryptoPriceRepository repository = (CryptoPriceRepository) Proxy.newProxyInstance(
+                CryptoPriceRepository.class.getClassLoader(), new Class<?>[]{CryptoPriceRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findDistinctSymbols")) {
+                        return Arrays.asList(SyntheticPrices.SYMBOLS);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        RollupService rollupService = new RollupService(null, null, priceStore) {
+            @Override
+            public List<PriceRollup> findRollups(RollupGranularity granularity, Instant bucketStart) {
+                return dailyRollups.getOrDefault(bucketStart, List.of());
+            }
+        };
+        // The loading collaborators (JDBC batches, checkpoints, CSV files, events) are never reached by these reads
+        cryptoService = new CryptoService(new CryptoConfig(), repository, null, null, null, priceStore, rollupService,
+                null, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public Map<String, Double> getCryptoStatistics() {
+        return cryptoService.getCryptoStatistics("BTC");
+    }
+
+    @Benchmark
+    public List<String> getCryptosSortedByNormalizedRange() {
+        return cryptoService.getCryptosSortedByNormalizedRange();
+    }
+
+    @Benchmark
+    public String getCryptoWithHighestRangeForDay() {
+        return cryptoService.getCryptoWithHighestRangeForDay(day);
+    }
+}
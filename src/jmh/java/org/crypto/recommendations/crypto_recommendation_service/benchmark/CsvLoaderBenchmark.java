@@ -0,0 +1,58 @@
+package org.crypto.recommendations.crypto_recommendation_service.benchmark;
+
+import org.crypto.recommendations.crypto_recommendation_service.model.CryptoPrice;
+import org.crypto.recommendations.crypto_recommendation_service.util.CSVLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a price file with {@link CSVLoader}: materialized into entities, and streamed as primitives. The
+ * materializing variant stops at 10^7 ticks, beyond which the resulting list alone outgrows a typical heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CsvLoaderBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    long ticks;
+
+    private CSVLoader loader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path directory = Path.of("target", "jmh-data", Long.toString(ticks));
+        SyntheticPrices.writeCsv(directory, "BTC", ticks);
+        loader = new CSVLoader(directory.toString());
+    }
+
+    @Benchmark
+    public List<CryptoPrice> loadPricesFromCSV() {
+        return loader.loadPricesFromCSV("BTC");
+    }
+
+    @Benchmark
+    public double streamPricesFromCSV() {
+        double[] sum = {0};
+        loader.streamPricesFromCSV("BTC", (timestamp, price) -> sum[0] += price);
+        return sum[0];
+    }
+}
@@ -0,0 +1,49 @@
+package org.crypto.recommendations.crypto_recommendation_service.benchmark;
+
+import org.crypto.recommendations.crypto_recommendation_service.util.CSVLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming parse of a memory-mapped price file at sizes up to 10^8 ticks (about 3.4 GB on disk, generated
+ * once under {@code target/jmh-data}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SingleShotTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CsvStreamingBenchmark {
+
+    @Param({"1000", "100000", "10000000", "100000000"})
+    long ticks;
+
+    private CSVLoader loader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path directory = Path.of("target", "jmh-data", Long.toString(ticks));
+        SyntheticPrices.writeCsv(directory, "BTC", ticks);
+        loader = new CSVLoader(directory.toString());
+    }
+
+    @Benchmark
+    public long streamPricesFromCSV() {
+        return loader.streamPricesFromCSV("BTC", (timestamp, price) -> {});
+    }
+}
@@ -0,0 +1,70 @@
+package org.crypto.recommendations.crypto_recommendation_service.benchmark;
+
+import org.crypto.recommendations.crypto_recommendation_service.store.PriceVisitor;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic random-walk price series shaped like the bundled price files, one tick per minute.
+ */
+final class SyntheticPrices {
+
+    static final String[] SYMBOLS = {"BTC", "DOGE", "ETH", "LTC", "XRP"};
+    static final long START_MILLIS = Instant.parse("2015-01-01T00:00:00Z").toEpochMilli();
+    static final long STEP_MILLIS = 60_000L;
+
+    private SyntheticPrices() {
+    }
+
+    // Ticks of one symbol, oldest first
+    static void generate(String symbol, long ticks, PriceVisitor visitor) {
+        SplittableRandom random = new SplittableRandom(symbol.hashCode());
+        double price = 100 + random.nextDouble(50_000);
+        for (long i = 0; i < ticks; i++) {
+            price = Math.max(0.01, price * (1 + (random.nextDouble() - 0.5) * 0.002));
+            // Cents, like the bundled files
+            visitor.visit(START_MILLIS + i * STEP_MILLIS, Math.round(price * 100) / 100.0);
+        }
+    }
+
+    /**
+     * Writes {@code <directory>/<symbol>_values.csv} with the given number of ticks, unless a file from an earlier
+     * run with the same size already exists.
+     */
+    static Path writeCsv(Path directory, String symbol, long ticks) throws IOException {
+        Path file = directory.resolve(symbol + "_values.csv");
+        Path marker = directory.resolve(symbol + "_values." + ticks + ".complete");
+        if (Files.exists(marker) && Files.exists(file)) {
+            return file;
+        }
+        Files.createDirectories(directory);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            writer.write("timestamp,symbol,price\n");
+            generate(symbol, ticks, (timestamp, price) -> {
+                try {
+                    long cents = Math.round(price * 100);
+                    writer.write(Long.toString(timestamp));
+                    writer.write(',');
+                    writer.write(symbol);
+                    writer.write(',');
+                    writer.write(Long.toString(cents / 100));
+                    writer.write('.');
+                    writer.write((char) ('0' + cents / 10 % 10));
+                    writer.write((char) ('0' + cents % 10));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        Files.createFile(marker);
+        return file;
+    }
+}
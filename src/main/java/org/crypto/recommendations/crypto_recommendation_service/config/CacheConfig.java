@@ -0,0 +1,22 @@
+package org.crypto.recommendations.crypto_recommendation_service.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the response caches of the read endpoints. The caches themselves are Caffeine caches created by
+ * Spring Boot from the {@code spring.cache.*} properties, so their size, TTL and metrics are configured there.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Statistics per symbol, keyed by symbol
+    public static final String STATISTICS_CACHE = "cryptoStatistics";
+
+    // Normalized range rankings, which depend on every symbol
+    public static final String RANKINGS_CACHE = "cryptoRankings";
+
+    // Symbol with the highest range per day, keyed by the requested yyyy-MM-dd date
+    public static final String HIGHEST_RANGE_CACHE = "highestRangeByDay";
+}
@@ -1,43 +1,121 @@
 package org.crypto.recommendations.crypto_recommendation_service.config;
 
-import jakarta.annotation.PostConstruct;
 import lombok.Getter;
-import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
+/**
+ * Registry of the supported symbols and the price file each one is loaded from. Symbols come from the
+ * {@code crypto.symbols.<SYMBOL>=<file>} properties, from {@code <SYMBOL>_values.csv} files found in
+ * {@code crypto.data.directory} at startup, and from {@link #register(String, String)} at runtime.
+ * <p>
+ * Each symbol is interned to a dense id, starting at 0 in registration order and never reused, so per-tick
+ * code can index arrays by id instead of hashing symbol strings.
+ */
+@Slf4j
 @Configuration
 public class CryptoConfig {
 
-    @Value("${crypto.symbols.BTC}")
-    private String btcFile;
+    static final Pattern SYMBOL = Pattern.compile("[A-Z0-9][A-Z0-9-]{0,31}");
+    // A base name resolved inside the data directory or the bundled data/ folder, never a path
+    static final Pattern FILE_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_-]{0,63}");
+    private static final String FILE_SUFFIX = "_values.csv";
 
-    @Value("${crypto.symbols.DOGE}")
-    private String dogeFile;
+    private final Map<String, String> files = new ConcurrentHashMap<>();
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    // Copied on registration, which is rare, so lookups by id need no lock
+    private volatile String[] symbolsById = new String[0];
 
-    @Value("${crypto.symbols.ETH}")
-    private String ethFile;
+    // Symbol -> price file name; a read-only view that reflects symbols registered later
+    @Getter
+    private final Map<String, String> symbols = Collections.unmodifiableMap(files);
 
-    @Value("${crypto.symbols.LTC}")
-    private String ltcFile;
+    public CryptoConfig() {
+    }
 
-    @Value("${crypto.symbols.XRP}")
-    private String xrpFile;
+    @Autowired
+    public CryptoConfig(Environment environment, @Value("${crypto.data.directory:}") String dataDirectory) {
+        Binder.get(environment).bind("crypto.symbols", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of())
+                .forEach(this::register);
+        if (dataDirectory != null && !dataDirectory.isBlank()) {
+            discover(Path.of(dataDirectory));
+        }
+        log.info("Registered {} symbols", symbolsById.length);
+    }
 
-    // You can use a Map to handle dynamic symbols in future as well
-    @Getter
-    private final Map<String, String> symbols = new HashMap<>();
-
-    @PostConstruct
-    public void init() {
-        symbols.put("BTC", btcFile);
-        symbols.put("DOGE", dogeFile);
-        symbols.put("ETH", ethFile);
-        symbols.put("LTC", ltcFile);
-        symbols.put("XRP", xrpFile);
+    /**
+     * Registers a symbol, or points an already registered one at another price file.
+     *
+     * @return the symbol's id
+     * @throws IllegalArgumentException if the symbol or file name is malformed
+     */
+    public synchronized int register(String symbol, String fileName) {
+        if (symbol == null || !SYMBOL.matcher(symbol).matches()) {
+            throw new IllegalArgumentException("Invalid cryptocurrency symbol: " + symbol);
+        }
+        if (fileName == null || !FILE_NAME.matcher(fileName).matches()) {
+            throw new IllegalArgumentException("Invalid price file name: " + fileName);
+        }
+
+        Integer id = ids.get(symbol);
+        if (id == null) {
+            id = symbolsById.length;
+            String[] grown = Arrays.copyOf(symbolsById, id + 1);
+            grown[id] = symbol;
+            symbolsById = grown;
+            ids.put(symbol, id);
+        }
+        // Published last, so a symbol that passes validation always has an id
+        files.put(symbol, fileName);
+        return id;
+    }
+
+    // Id of the symbol, or -1 if it is not registered
+    public int idOf(String symbol) {
+        Integer id = ids.get(symbol);
+        return id != null ? id : -1;
+    }
+
+    public String symbolOf(int id) {
+        return symbolsById[id];
+    }
+
+    // Number of registered symbols; every id is below it
+    public int size() {
+        return symbolsById.length;
+    }
+
+    private void discover(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            log.warn("Data directory {} does not exist; no symbols discovered from it", directory);
+            return;
+        }
+        try (Stream<Path> entries = Files.list(directory)) {
+            entries.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(FILE_SUFFIX))
+                    .map(name -> name.substring(0, name.length() - FILE_SUFFIX.length()))
+                    .filter(name -> SYMBOL.matcher(name).matches())
+                    .sorted()
+                    .forEach(name -> register(name, name));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list data directory " + directory, e);
+        }
     }
 }
@@ -0,0 +1,31 @@
+package org.crypto.recommendations.crypto_recommendation_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Distribution statistics published for the {@code http.server.requests} timer of each endpoint, applied by
+ * {@link MetricsConfig}. Endpoints are keyed by their URI template, e.g. {@code /cryptos/{symbol}/stats}.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "crypto.metrics")
+public class EndpointMetricsProperties {
+
+    // Percentiles for endpoints without an entry in endpoints; empty publishes none
+    private List<Double> percentiles = List.of(0.5, 0.95, 0.99);
+
+    // URI template -> percentiles, overriding the default
+    private Map<String, List<Double>> endpoints = new HashMap<>();
+
+    // Publish histogram buckets instead, which can be aggregated across instances; Prometheus then drops the
+    // client-side percentiles
+    private boolean histogram = false;
+}
@@ -0,0 +1,58 @@
+package org.crypto.recommendations.crypto_recommendation_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class LoadExecutorConfig {
+
+    // Bounded pool used to load several symbols' price files at once
+    @Bean(name = "cryptoLoadExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor cryptoLoadExecutor(@Value("${crypto.load.parallelism:4}") int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setThreadNamePrefix("crypto-load-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    // With spring.threads.virtual.enabled on Java 21+: one virtual thread per load, still at most parallelism at once
+    @Bean(name = "cryptoLoadExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor cryptoLoadVirtualExecutor(@Value("${crypto.load.parallelism:4}") int parallelism) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("crypto-load-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(parallelism);
+        return executor;
+    }
+
+    // Sends queued price stream events to subscribers. Nothing is queued: a delivery runs on an idle thread or a
+    // new one up to maxThreads, so a client that stops reading blocks only its own thread until it is dropped
+    @Bean(name = "cryptoStreamExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor cryptoStreamExecutor(@Value("${crypto.stream.delivery-threads:8}") int threads,
+                                                       @Value("${crypto.stream.max-delivery-threads:64}") int maxThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(Math.max(threads, maxThreads));
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("crypto-stream-");
+        return executor;
+    }
+
+    // With virtual threads, a slow client only parks its own virtual thread
+    @Bean(name = "cryptoStreamExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor cryptoStreamVirtualExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("crypto-stream-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
@@ -0,0 +1,59 @@
+package org.crypto.recommendations.crypto_recommendation_service.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.crypto.recommendations.crypto_recommendation_service.filter.AuthenticationFailureLimitFilter;
+import org.crypto.recommendations.crypto_recommendation_service.filter.RateLimitFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Application meters on top of the ones Spring Boot records itself: {@code http.server.requests} per endpoint
+ * and {@code spring.data.repository.invocations} per repository method. All of them are scraped from
+ * {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    static final String HTTP_SERVER_REQUESTS = "http.server.requests";
+
+    @Bean
+    public MeterBinder rateLimitMetrics(RateLimitFilter rateLimitFilter, AuthenticationFailureLimitFilter authenticationFailureLimitFilter) {
+        return registry -> {
+            Gauge.builder("crypto.rate.limit.clients", rateLimitFilter, RateLimitFilter::activeClients)
+                    .description("Clients tracked by the rate limiter that have not fully refilled")
+                    .register(registry);
+            FunctionCounter.builder("crypto.rate.limit.rejected", rateLimitFilter, RateLimitFilter::rejectedRequests)
+                    .description("Requests rejected with 429 Too Many Requests")
+                    .register(registry);
+            FunctionCounter.builder("crypto.rate.limit.authentication.rejected", authenticationFailureLimitFilter,
+                            AuthenticationFailureLimitFilter::rejectedRequests)
+                    .description("Requests with credentials rejected with 429 after too many failed authentications")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterFilter endpointPercentiles(EndpointMetricsProperties properties) {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!HTTP_SERVER_REQUESTS.equals(id.getName())) {
+                    return config;
+                }
+                List<Double> percentiles = properties.getEndpoints().getOrDefault(id.getTag("uri"), properties.getPercentiles());
+                return DistributionStatisticConfig.builder()
+                        .percentiles(percentiles.stream().mapToDouble(Double::doubleValue).toArray())
+                        .percentilesHistogram(properties.isHistogram())
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package org.crypto.recommendations.crypto_recommendation_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Limits enforced by {@link org.crypto.recommendations.crypto_recommendation_service.filter.RateLimitFilter}
+ * and {@link org.crypto.recommendations.crypto_recommendation_service.filter.AuthenticationFailureLimitFilter},
+ * in requests per minute. Anonymous clients are identified by IP address, authenticated ones by principal name.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "crypto.rate-limit")
+public class RateLimitProperties {
+
+    // Limit for each anonymous client IP
+    private int requestsPerMinute = 100;
+
+    // Failed authentication attempts allowed for each client IP, checked before credentials are
+    private int failedAuthenticationsPerMinute = 10;
+
+    // Limit for each authenticated principal without an entry in principals
+    private int authenticatedRequestsPerMinute = 100;
+
+    // Principal name -> limit, overriding authenticatedRequestsPerMinute
+    private Map<String, Integer> principals = new HashMap<>();
+
+    // Path prefix -> limit per client for requests under that prefix; the longest matching prefix wins
+    private Map<String, Integer> routes = new LinkedHashMap<>();
+
+    // Number of client slots in the limiter table, rounded up to a power of two; bounds its memory use
+    private int tableSize = 65536;
+}
@@ -1,19 +1,22 @@
 package org.crypto.recommendations.crypto_recommendation_service.config;
 
+import org.crypto.recommendations.crypto_recommendation_service.filter.AuthenticationFailureLimitFilter;
 import org.crypto.recommendations.crypto_recommendation_service.filter.RateLimitFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 import static org.springframework.security.config.Customizer.withDefaults;
 
@@ -23,32 +26,54 @@ import static org.springframework.security.config.Customizer.withDefaults;
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, RateLimitFilter rateLimitFilter,
+                                                   AuthenticationFailureLimitFilter authenticationFailureLimitFilter) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(authorize -> authorize
                         .requestMatchers(HttpMethod.GET, "/cryptos/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/cryptos/load-data/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/cryptos/ticks").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/cryptos/symbols/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .httpBasic(withDefaults())
-                .addFilterBefore(new RateLimitFilter(), UsernamePasswordAuthenticationFilter.class);
+                // Before authentication, so wrong credentials are limited per IP before any password check
+                .addFilterBefore(authenticationFailureLimitFilter, BasicAuthenticationFilter.class)
+                // After authentication, so signed-in clients are limited per principal rather than per IP
+                .addFilterAfter(rateLimitFilter, BasicAuthenticationFilter.class);
 
         return http.build();
     }
 
+    // The filters run inside the security chain only; keep Spring Boot from also registering it with the servlet container
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<AuthenticationFailureLimitFilter> authenticationFailureLimitFilterRegistration(
+            AuthenticationFailureLimitFilter authenticationFailureLimitFilter) {
+        FilterRegistrationBean<AuthenticationFailureLimitFilter> registration = new FilterRegistrationBean<>(authenticationFailureLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
 
+    // Exposed as the user store, not as an AuthenticationManager built from the shared builder: that manager
+    // became its own parent, so every wrong password recursed through it, with a BCrypt check per level,
+    // until the stack overflowed
     @Bean
-    public AuthenticationManager authenticationManager(HttpSecurity http) throws Exception {
-        AuthenticationManagerBuilder auth = http.getSharedObject(AuthenticationManagerBuilder.class);
-        auth.inMemoryAuthentication()
-                .withUser("admin").password(passwordEncoder().encode("adminPass")).roles("ADMIN")
-                .and()
-                .withUser("user").password(passwordEncoder().encode("userPass")).roles("USER");
-        return auth.build();
+    public UserDetailsService userDetailsService(PasswordEncoder passwordEncoder) {
+        return new InMemoryUserDetailsManager(
+                User.withUsername("admin").password(passwordEncoder.encode("adminPass")).roles("ADMIN").build(),
+                User.withUsername("user").password(passwordEncoder.encode("userPass")).roles("USER").build());
     }
 }
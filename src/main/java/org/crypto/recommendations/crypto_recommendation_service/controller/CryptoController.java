@@ -5,16 +5,42 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.crypto.recommendations.crypto_recommendation_service.config.CryptoConfig;
+import org.crypto.recommendations.crypto_recommendation_service.filter.ConditionalGet;
+import org.crypto.recommendations.crypto_recommendation_service.model.DetailedStatistics;
+import org.crypto.recommendations.crypto_recommendation_service.model.ExportFormat;
+import org.crypto.recommendations.crypto_recommendation_service.model.LatestPrice;
+import org.crypto.recommendations.crypto_recommendation_service.model.LoadStatus;
+import org.crypto.recommendations.crypto_recommendation_service.model.NormalizedRange;
+import org.crypto.recommendations.crypto_recommendation_service.model.PriceHistory;
+import org.crypto.recommendations.crypto_recommendation_service.model.PriceResolution;
+import org.crypto.recommendations.crypto_recommendation_service.model.WindowedRange;
+import org.crypto.recommendations.crypto_recommendation_service.repository.SymbolDictionary;
+import org.crypto.recommendations.crypto_recommendation_service.service.BulkLoadService;
 import org.crypto.recommendations.crypto_recommendation_service.service.CryptoService;
+import org.crypto.recommendations.crypto_recommendation_service.service.PriceExportService;
+import org.crypto.recommendations.crypto_recommendation_service.service.PriceStreamService;
+import org.crypto.recommendations.crypto_recommendation_service.service.TickBufferFullException;
+import org.crypto.recommendations.crypto_recommendation_service.service.TickIngestService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 @RestController
 @RequestMapping("/cryptos")
@@ -24,7 +50,26 @@ public class CryptoController {
     @Autowired
     private CryptoService cryptoService;
 
+    @Autowired
+    private BulkLoadService bulkLoadService;
+
+    @Autowired
+    private PriceExportService priceExportService;
+
+    @Autowired
+    private TickIngestService tickIngestService;
+
+    @Autowired
+    private PriceStreamService priceStreamService;
+
+    @Autowired
+    private CryptoConfig cryptoConfig;
+
+    @Autowired
+    private SymbolDictionary symbolDictionary;
+
     @GetMapping("/{symbol}/stats")
+    @ConditionalGet(ConditionalGet.Scope.SYMBOL)
     @Operation(summary = "Get cryptocurrency statistics", description = "This endpoint returns statistical data for a specific cryptocurrency symbol.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved cryptocurrency statistics"),
@@ -35,7 +80,114 @@ public class CryptoController {
         return cryptoService.getCryptoStatistics(symbol);
     }
 
+    @GetMapping("/{symbol}/stats/detailed")
+    @ConditionalGet(ConditionalGet.Scope.SYMBOL)
+    @Operation(summary = "Get detailed cryptocurrency statistics", description = "This endpoint returns count, min, max, mean, variance, standard deviation, log-return volatility and approximate p50/p95/p99 of a symbol's prices over [from, to), or over all of them when the bounds are omitted.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the statistics"),
+            @ApiResponse(responseCode = "400", description = "Invalid range"),
+            @ApiResponse(responseCode = "404", description = "No prices stored for the symbol")
+    })
+    public ResponseEntity<DetailedStatistics> getDetailedStatistics(@PathVariable String symbol,
+                                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        return ResponseEntity.of(cryptoService.getDetailedStatistics(symbol, from, to));
+    }
+
+    @GetMapping("/stats")
+    @ConditionalGet
+    @Operation(summary = "Get statistics of several cryptocurrencies", description = "This endpoint returns min, max, oldest, newest and normalizedRange for each requested symbol, or for every symbol if none are given, in one call served from memory.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved cryptocurrency statistics"),
+            @ApiResponse(responseCode = "400", description = "Invalid cryptocurrency symbol"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public Map<String, Map<String, Double>> getBatchStatistics(@RequestParam(required = false) List<String> symbols) {
+        return cryptoService.getBatchStatistics(symbols);
+    }
+
+    @GetMapping("/{symbol}/latest")
+    @ConditionalGet(ConditionalGet.Scope.SYMBOL)
+    @Operation(summary = "Get the latest price of a cryptocurrency", description = "This endpoint returns the most recent tick for a specific cryptocurrency symbol, served from memory.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the latest price"),
+            @ApiResponse(responseCode = "404", description = "No prices stored for the symbol")
+    })
+    public ResponseEntity<LatestPrice> getLatestPrice(@PathVariable String symbol) {
+        return ResponseEntity.of(cryptoService.getLatestPrice(symbol));
+    }
+
+    @GetMapping("/latest")
+    @ConditionalGet
+    @Operation(summary = "Get the latest price of every cryptocurrency", description = "This endpoint returns the most recent tick for every symbol, served from memory.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the latest prices")
+    })
+    public List<LatestPrice> getLatestPrices() {
+        return cryptoService.getLatestPrices();
+    }
+
+    @GetMapping("/{symbol}/prices")
+    @ConditionalGet(ConditionalGet.Scope.SYMBOL)
+    @Operation(summary = "Get the price history of a cryptocurrency", description = "This endpoint returns the prices of a symbol over [from, to) as raw ticks, LTTB-downsampled ticks or hourly/daily/weekly OHLC bars, never more than maxPoints entries.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the price history"),
+            @ApiResponse(responseCode = "400", description = "Invalid range or resolution, or the range does not fit in maxPoints at that resolution"),
+            @ApiResponse(responseCode = "404", description = "No prices stored for the symbol")
+    })
+    public ResponseEntity<PriceHistory> getPriceHistory(@PathVariable String symbol,
+                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                        @RequestParam(defaultValue = "auto") String resolution,
+                                                        @RequestParam(defaultValue = "1000") int maxPoints) {
+        return ResponseEntity.of(cryptoService.getPriceHistory(symbol, from, to, PriceResolution.parse(resolution), maxPoints));
+    }
+
+    @GetMapping("/{symbol}/export")
+    @ConditionalGet(ConditionalGet.Scope.SYMBOL)
+    @Operation(summary = "Export the stored prices of a cryptocurrency", description = "This endpoint streams every stored price of a symbol over [from, to) as NDJSON or CSV, reading from a database cursor so the export is never held in memory.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Prices are streamed in timestamp order"),
+            @ApiResponse(responseCode = "400", description = "Invalid format or range"),
+            @ApiResponse(responseCode = "404", description = "No prices stored for the symbol")
+    })
+    public ResponseEntity<StreamingResponseBody> exportPrices(@PathVariable String symbol,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                              @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'.");
+        }
+        if (!priceExportService.hasPrices(symbol)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        StreamingResponseBody body = output -> priceExportService.export(symbol, from, to, exportFormat, output);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(symbol + "_prices." + exportFormat.getExtension()).build().toString())
+                .body(body);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream price updates", description = "This endpoint opens a Server-Sent Events stream of tick, stats and rankings events, sent when data is ingested and coalesced per symbol. Pass symbols to receive tick and stats events for those symbols only. A client that stops reading for longer than crypto.stream.send-timeout-ms (10 s by default) is disconnected.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream opened; the current state is sent first"),
+            @ApiResponse(responseCode = "400", description = "Invalid cryptocurrency symbol"),
+            @ApiResponse(responseCode = "503", description = "Too many open streams")
+    })
+    public ResponseEntity<SseEmitter> streamPrices(@RequestParam(required = false) List<String> symbols) {
+        try {
+            return ResponseEntity.ok(priceStreamService.subscribe(symbols));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
     @GetMapping("/sorted-by-range")
+    @ConditionalGet
     @Operation(summary = "Get sorted list of cryptocurrencies by normalized range", description = "This endpoint returns a list of cryptocurrency symbols sorted by their normalized range.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved sorted list of cryptocurrencies"),
@@ -45,7 +197,34 @@ public class CryptoController {
         return cryptoService.getCryptosSortedByNormalizedRange();
     }
 
+    @GetMapping("/normalized-ranges")
+    @ConditionalGet
+    @Operation(summary = "Get cryptocurrencies with their normalized range", description = "This endpoint returns cryptocurrency symbols with their normalized range (max - min) / min, highest first, with optional paging.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved normalized ranges"),
+            @ApiResponse(responseCode = "400", description = "Invalid offset or limit"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public List<NormalizedRange> getNormalizedRanges(@RequestParam(defaultValue = "0") int offset,
+                                                     @RequestParam(required = false) Integer limit) {
+        return cryptoService.getNormalizedRanges(offset, limit);
+    }
+
+    @GetMapping("/top")
+    @ConditionalGet
+    @Operation(summary = "Get the top cryptocurrencies by normalized range over a sliding window", description = "This endpoint returns at most k cryptocurrency symbols with the highest normalized range over the given window (one of 1h, 24h, 7d and 30d by default), highest first. Each window ends at the symbol's newest tick.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the top cryptocurrencies"),
+            @ApiResponse(responseCode = "400", description = "Unsupported window or k out of range"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public List<WindowedRange> getTopByWindowedRange(@RequestParam(defaultValue = "24h") String window,
+                                                     @RequestParam(defaultValue = "10") int k) {
+        return cryptoService.getTopByWindowedRange(window, k);
+    }
+
     @GetMapping("/highest-range")
+    @ConditionalGet
     @Operation(summary = "Get cryptocurrency with the highest range for a specific day", description = "This endpoint returns the cryptocurrency symbol with the highest range for a specific day.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved cryptocurrency with the highest range for the specified day"),
@@ -78,4 +257,78 @@ public class CryptoController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to load crypto data: " + e.getMessage());
         }
     }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/load-data")
+    @Operation(summary = "Load crypto data for all configured symbols", description = "This endpoint loads the CSV files of every configured symbol in parallel and returns the outcome per symbol.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Crypto data loaded successfully for every symbol"),
+            @ApiResponse(responseCode = "207", description = "Some symbols failed to load; see the per-symbol status"),
+            @ApiResponse(responseCode = "409", description = "A bulk load is already in progress")
+    })
+    public ResponseEntity<Map<String, LoadStatus>> loadAllCryptoData() {
+        try {
+            Map<String, LoadStatus> result = bulkLoadService.loadAll();
+            boolean anyFailed = result.values().stream().anyMatch(status -> status.getState() == LoadStatus.State.FAILED);
+            return ResponseEntity.status(anyFailed ? HttpStatus.MULTI_STATUS : HttpStatus.OK).body(result);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(bulkLoadService.getProgress());
+        }
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/ticks", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    @Operation(summary = "Ingest live ticks", description = "This endpoint accepts a JSON array or newline-delimited JSON of {symbol, price, timestamp} ticks. They are written to the database in the background and become visible to reads once written.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Every tick was accepted"),
+            @ApiResponse(responseCode = "400", description = "Malformed body, incomplete tick, unknown symbol or too many ticks; nothing was accepted"),
+            @ApiResponse(responseCode = "503", description = "The write buffer is full; nothing was accepted, retry after the Retry-After delay")
+    })
+    public ResponseEntity<Map<String, Integer>> ingestTicks(InputStream body) throws IOException {
+        int accepted = tickIngestService.accept(body);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("accepted", accepted));
+    }
+
+    @GetMapping("/symbols")
+    @Operation(summary = "List the supported cryptocurrencies", description = "This endpoint returns every registered symbol with the name of the price file it is loaded from, ordered by symbol.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the symbols")
+    })
+    public Map<String, String> getSymbols() {
+        return new TreeMap<>(cryptoConfig.getSymbols());
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/symbols/{symbol}")
+    @Operation(summary = "Register a cryptocurrency", description = "This endpoint adds a symbol at runtime, or points an existing one at another price file. The file defaults to the symbol and is resolved as <file>_values.csv in the data directory or the bundled data folder.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Symbol registered"),
+            @ApiResponse(responseCode = "400", description = "Malformed symbol or file name")
+    })
+    public Map<String, Object> registerSymbol(@PathVariable String symbol, @RequestParam(required = false) String file) {
+        int id = cryptoConfig.register(symbol, file != null ? file : symbol);
+        // Assigns the symbol's database key now, so reads never have to
+        symbolDictionary.idFor(symbol);
+        return Map.of("symbol", symbol, "id", id);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/load-data/status")
+    @Operation(summary = "Get bulk load progress", description = "This endpoint returns the status of each symbol in the current or last bulk load.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved load progress")
+    })
+    public Map<String, LoadStatus> getLoadProgress() {
+        return bulkLoadService.getProgress();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    @ExceptionHandler(TickBufferFullException.class)
+    public ResponseEntity<String> handleTickBufferFull(TickBufferFullException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(e.getMessage());
+    }
 }
@@ -0,0 +1,84 @@
+package org.crypto.recommendations.crypto_recommendation_service.filter;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.crypto.recommendations.crypto_recommendation_service.config.RateLimitProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits failed authentication attempts per client IP, ahead of authentication.
+ *
+ * <p>{@link RateLimitFilter} runs after authentication so signed-in clients are limited per principal, which
+ * means a request with wrong credentials is answered with 401 before reaching it. This filter sits in front
+ * of authentication instead: every 401 answered to a request that carried credentials consumes one of the
+ * address's {@code crypto.rate-limit.failed-authentications-per-minute}, and once they are used up further
+ * requests with credentials from that address get 429 without a password check. Clients that authenticate
+ * successfully are never charged, so their own limits are unaffected.
+ */
+@Component
+public class AuthenticationFailureLimitFilter implements Filter {
+
+    private final long interval;
+    private final GcraTable table;
+
+    private final LongAdder rejected = new LongAdder();
+
+    @Autowired
+    public AuthenticationFailureLimitFilter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    AuthenticationFailureLimitFilter(RateLimitProperties properties, LongSupplier clock) {
+        this.interval = GcraTable.intervalFor(properties.getFailedAuthenticationsPerMinute());
+        this.table = new GcraTable(properties.getTableSize(), clock);
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+
+        // The error dispatch that renders a 401 passes through here again and must not count twice
+        if (httpRequest.getDispatcherType() != DispatcherType.REQUEST || httpRequest.getHeader(HttpHeaders.AUTHORIZATION) == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long key = GcraTable.keyOf(httpRequest.getRemoteAddr(), 0);
+        long waitNanos = table.waitNanos(key, interval);
+        if (waitNanos > 0) {
+            rejected.increment();
+            RateLimitFilter.tooManyRequests(httpResponse, waitNanos);
+            return;
+        }
+
+        chain.doFilter(request, response);
+        if (httpResponse.getStatus() == HttpServletResponse.SC_UNAUTHORIZED) {
+            table.acquire(key, interval);
+        }
+    }
+
+    // Number of requests rejected with 429 since startup
+    public long rejectedRequests() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) {}
+
+    @Override
+    public void destroy() {}
+}
@@ -0,0 +1,27 @@
+package org.crypto.recommendations.crypto_recommendation_service.filter;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read endpoint whose response only changes when price data is loaded. {@link ConditionalGetInterceptor}
+ * adds ETag and Last-Modified headers to it and answers matching conditional requests with 304 Not Modified
+ * before the handler runs.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalGet {
+
+    Scope value() default Scope.GLOBAL;
+
+    enum Scope {
+        // The response depends on the prices of every symbol
+        GLOBAL,
+        // The response depends only on the prices of the symbol in the {symbol} path variable
+        SYMBOL
+    }
+}
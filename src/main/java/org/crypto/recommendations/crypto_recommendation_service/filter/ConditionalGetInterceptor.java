@@ -0,0 +1,60 @@
+package org.crypto.recommendations.crypto_recommendation_service.filter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.crypto.recommendations.crypto_recommendation_service.service.DataVersionRegistry;
+import org.crypto.recommendations.crypto_recommendation_service.service.DataVersionRegistry.DataVersion;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Validates conditional requests to {@link ConditionalGet} endpoints against the data version, so an unchanged
+ * response costs neither the service call nor its serialization.
+ */
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final DataVersionRegistry dataVersionRegistry;
+
+    public ConditionalGetInterceptor(DataVersionRegistry dataVersionRegistry) {
+        this.dataVersionRegistry = dataVersionRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        ConditionalGet conditionalGet = handlerMethod.getMethodAnnotation(ConditionalGet.class);
+        if (conditionalGet == null) {
+            return true;
+        }
+
+        DataVersion version = conditionalGet.value() == ConditionalGet.Scope.SYMBOL
+                ? dataVersionRegistry.forSymbol(symbolOf(request))
+                : dataVersionRegistry.global();
+
+        // Lets clients keep the response but revalidate it on every use; overrides the no-store default of Spring Security
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        // Sets ETag and Last-Modified, and the 304 status when the client's copy is current
+        boolean notModified = new ServletWebRequest(request, response)
+                .checkNotModified(dataVersionRegistry.etag(version), version.getLastModifiedMillis());
+        return !notModified;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String symbolOf(HttpServletRequest request) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String symbol = variables == null ? null : variables.get("symbol");
+        if (symbol == null) {
+            throw new IllegalStateException("@ConditionalGet(SYMBOL) requires a {symbol} path variable: " + request.getRequestURI());
+        }
+        return symbol;
+    }
+}
@@ -0,0 +1,162 @@
+package org.crypto.recommendations.crypto_recommendation_service.filter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Fixed-size table of generic cell rate algorithm states, shared by the rate limiting filters.
+ *
+ * <p>Each client is hashed to a 64-bit key and tracked in an open-addressed table of {@code tableSize} slots. A
+ * slot holds the key and a single "theoretical arrival time", which behaves like a token bucket that refills
+ * continuously and allows a burst of the full per-minute limit. Slots whose client is fully refilled carry no
+ * information and are taken over by new clients, and when a probe window is full the most-refilled client is
+ * evicted, so one-off or spoofed clients cannot grow the table. Admitting a request is a few array reads and one
+ * CAS, without locks or allocation. Distinct clients with equal keys, or a takeover racing with the previous
+ * owner, share a bucket, so limits are approximate in those rare cases and never stricter than one shared bucket.
+ */
+class GcraTable {
+
+    static final long PERIOD_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    // Slots inspected from a key's home slot before evicting
+    static final int MAX_PROBES = 8;
+
+    private final AtomicLongArray keys;
+    private final AtomicLongArray arrivals;
+    private final int mask;
+
+    private final LongSupplier clock;
+    private final long origin;
+
+    GcraTable(int tableSize, LongSupplier clock) {
+        if (tableSize < MAX_PROBES) {
+            throw new IllegalArgumentException("Rate limit table size must be at least " + MAX_PROBES);
+        }
+        int size = Integer.highestOneBit(tableSize - 1) << 1;
+        this.keys = new AtomicLongArray(size);
+        this.arrivals = new AtomicLongArray(size);
+        this.mask = size - 1;
+
+        this.clock = clock;
+        // Times are kept relative to construction, so an untouched slot (0) always reads as idle
+        this.origin = clock.getAsLong();
+    }
+
+    /**
+     * Consumes one request from the key's allowance.
+     *
+     * @return 0 if the request is admitted, otherwise the nanoseconds until it would be
+     */
+    long acquire(long key, long interval) {
+        long now = clock.getAsLong() - origin;
+        long tolerance = PERIOD_NANOS - interval;
+        int slot = slotFor(key, now);
+        while (true) {
+            long arrival = arrivals.get(slot);
+            long start = Math.max(arrival, now);
+            if (start - now > tolerance) {
+                return start - now - tolerance;
+            }
+            if (arrivals.compareAndSet(slot, arrival, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Like {@link #acquire(long, long)}, but leaves the allowance untouched.
+     *
+     * @return 0 if a request would be admitted, otherwise the nanoseconds until it would be
+     */
+    long waitNanos(long key, long interval) {
+        long now = clock.getAsLong() - origin;
+        long tolerance = PERIOD_NANOS - interval;
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = (home(key) + probe) & mask;
+            if (keys.get(slot) == key) {
+                long start = Math.max(arrivals.get(slot), now);
+                return Math.max(0, start - now - tolerance);
+            }
+        }
+        return 0;
+    }
+
+    // Number of slots currently tracking a client that has not fully refilled
+    int activeClients() {
+        long now = clock.getAsLong() - origin;
+        int active = 0;
+        for (int slot = 0; slot <= mask; slot++) {
+            if (keys.get(slot) != 0 && arrivals.get(slot) > now) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    private int slotFor(long key, long now) {
+        int home = home(key);
+        while (true) {
+            int reusable = -1;
+            int victim = -1;
+            long victimArrival = Long.MAX_VALUE;
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                int slot = (home + probe) & mask;
+                long slotKey = keys.get(slot);
+                if (slotKey == key) {
+                    return slot;
+                }
+                long arrival = arrivals.get(slot);
+                if (reusable < 0 && (slotKey == 0 || arrival <= now)) {
+                    reusable = slot;
+                } else if (arrival < victimArrival) {
+                    victim = slot;
+                    victimArrival = arrival;
+                }
+            }
+
+            if (reusable >= 0) {
+                // Empty or fully refilled: the slot's arrival time already means "no requests outstanding"
+                long previous = keys.get(reusable);
+                if (keys.compareAndSet(reusable, previous, key)) {
+                    return reusable;
+                }
+            } else {
+                // Every slot in the window is busy: evict the client closest to being fully refilled
+                long previous = keys.get(victim);
+                if (keys.compareAndSet(victim, previous, key)) {
+                    arrivals.set(victim, now);
+                    return victim;
+                }
+            }
+        }
+    }
+
+    private static int home(long key) {
+        return (int) (key ^ (key >>> 32));
+    }
+
+    // 64-bit FNV-1a over the client name, mixed with a discriminator; never 0, which marks an empty slot
+    static long keyOf(String client, long discriminator) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < client.length(); i++) {
+            hash ^= client.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= discriminator;
+        // Finalizer of MurmurHash3, so similar addresses land on distant slots
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash == 0 ? 1 : hash;
+    }
+
+    static long intervalFor(int requestsPerMinute) {
+        if (requestsPerMinute <= 0) {
+            throw new IllegalArgumentException("Rate limit must be positive: " + requestsPerMinute);
+        }
+        return PERIOD_NANOS / requestsPerMinute;
+    }
+}
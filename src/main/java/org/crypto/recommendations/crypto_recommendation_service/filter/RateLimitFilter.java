@@ -1,9 +1,5 @@
 package org.crypto.recommendations.crypto_recommendation_service.filter;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Bucket4j;
-import io.github.bucket4j.Refill;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.FilterConfig;
@@ -12,45 +8,123 @@ import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.crypto.recommendations.crypto_recommendation_service.config.RateLimitProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
 
+/**
+ * Per-client rate limiting with a fixed memory footprint.
+ *
+ * <p>Each client (IP address, or principal name once authenticated) and route rule gets its own bucket in a
+ * {@link GcraTable}, so the number of tracked clients is bounded and admitting a request takes no locks.
+ * Runs after authentication; {@link AuthenticationFailureLimitFilter} limits credential guessing before it.
+ */
 @Component
 public class RateLimitFilter implements Filter {
 
-    private static final long MAX_REQUESTS_PER_MINUTE = 100;
-    private static final Duration TIME_PERIOD = Duration.ofMinutes(1);
+    private final long anonymousInterval;
+    private final long authenticatedInterval;
+    private final Map<String, Long> principalIntervals = new HashMap<>();
+    private final String[] routePrefixes;
+    private final long[] routeIntervals;
 
-    // Store buckets for each IP address
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final GcraTable table;
 
-    // Create a new bucket with a limit of MAX_REQUESTS_PER_MINUTE requests per TIME_PERIOD
-    private Bucket createNewBucket() {
-        Bandwidth limit = Bandwidth.classic(MAX_REQUESTS_PER_MINUTE, Refill.greedy(MAX_REQUESTS_PER_MINUTE, TIME_PERIOD));
-        return Bucket4j.builder().addLimit(limit).build();
+    private final LongAdder rejected = new LongAdder();
+
+    public RateLimitFilter() {
+        this(new RateLimitProperties());
+    }
+
+    @Autowired
+    public RateLimitFilter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    RateLimitFilter(RateLimitProperties properties, LongSupplier clock) {
+        this.anonymousInterval = GcraTable.intervalFor(properties.getRequestsPerMinute());
+        this.authenticatedInterval = GcraTable.intervalFor(properties.getAuthenticatedRequestsPerMinute());
+        properties.getPrincipals().forEach((principal, limit) -> principalIntervals.put(principal, GcraTable.intervalFor(limit)));
+
+        List<Map.Entry<String, Integer>> routes = new ArrayList<>(properties.getRoutes().entrySet());
+        routes.sort(Comparator.comparingInt((Map.Entry<String, Integer> route) -> route.getKey().length()).reversed());
+        this.routePrefixes = new String[routes.size()];
+        this.routeIntervals = new long[routes.size()];
+        for (int i = 0; i < routes.size(); i++) {
+            routePrefixes[i] = routes.get(i).getKey();
+            routeIntervals[i] = GcraTable.intervalFor(routes.get(i).getValue());
+        }
+
+        this.table = new GcraTable(properties.getTableSize(), clock);
     }
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
         HttpServletRequest httpRequest = (HttpServletRequest) request;
         HttpServletResponse httpResponse = (HttpServletResponse) response;
-        String clientIp = httpRequest.getRemoteAddr();
 
-        // Get or create a rate limit bucket for the client's IP address
-        Bucket bucket = buckets.computeIfAbsent(clientIp, k -> createNewBucket());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean authenticated = authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+        String client = authenticated ? authentication.getName() : httpRequest.getRemoteAddr();
+
+        int route = routeOf(httpRequest.getRequestURI());
+        long interval;
+        if (route >= 0) {
+            interval = routeIntervals[route];
+        } else if (authenticated) {
+            Long principalInterval = principalIntervals.get(client);
+            interval = principalInterval != null ? principalInterval : authenticatedInterval;
+        } else {
+            interval = anonymousInterval;
+        }
 
-        // Check if the request can proceed
-        if (bucket.tryConsume(1)) {
+        long waitNanos = table.acquire(GcraTable.keyOf(client, ((long) (route + 1) << 1) | (authenticated ? 1 : 0)), interval);
+        if (waitNanos == 0) {
             chain.doFilter(request, response); // Allow the request to proceed
         } else {
-            // Rate limit exceeded, send a 429 Too Many Requests response
-            httpResponse.setStatus(429);
-            httpResponse.getWriter().write("Rate limit exceeded. Please try again later.");
+            rejected.increment();
+            tooManyRequests(httpResponse, waitNanos);
+        }
+    }
+
+    // Sends a 429 Too Many Requests response, asking the client to retry once the allowance is back
+    static void tooManyRequests(HttpServletResponse response, long waitNanos) throws IOException {
+        response.setStatus(429);
+        response.setHeader("Retry-After", String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+        response.getWriter().write("Rate limit exceeded. Please try again later.");
+    }
+
+    // Number of requests rejected with 429 since startup
+    public long rejectedRequests() {
+        return rejected.sum();
+    }
+
+    // Number of slots currently tracking a client that has not fully refilled
+    public int activeClients() {
+        return table.activeClients();
+    }
+
+    private int routeOf(String uri) {
+        for (int i = 0; i < routePrefixes.length; i++) {
+            if (uri.startsWith(routePrefixes[i])) {
+                return i;
+            }
         }
+        return -1;
     }
 
     @Override
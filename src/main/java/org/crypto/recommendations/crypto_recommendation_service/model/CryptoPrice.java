@@ -2,13 +2,16 @@ package org.crypto.recommendations.crypto_recommendation_service.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.crypto.recommendations.crypto_recommendation_service.repository.SymbolIdConverter;
 import org.hibernate.proxy.HibernateProxy;
 
 import java.time.Instant;
 import java.util.Objects;
 
 @Entity
-@Table(name = "CRYPTO_PRICES")
+@Table(name = "CRYPTO_PRICES",
+        uniqueConstraints = @UniqueConstraint(name = "uk_crypto_prices_symbol_id_timestamp", columnNames = {"symbol_id", "timestamp"}),
+        indexes = @Index(name = "idx_crypto_prices_timestamp", columnList = "timestamp"))
 @Getter
 @Setter
 @ToString
@@ -18,7 +21,9 @@ public class CryptoPrice {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false)
+    // Stored as the symbol's SYMBOLS key
+    @Convert(converter = SymbolIdConverter.class)
+    @Column(name = "symbol_id", nullable = false)
     private String symbol;
 
     @Column(nullable = false)
@@ -0,0 +1,34 @@
+package org.crypto.recommendations.crypto_recommendation_service.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Statistics of a symbol's prices over {@code [from, to)}. {@code volatility} is the sample standard deviation
+ * of the log returns between consecutive ticks, and the percentiles are approximate. Values that need more
+ * ticks than the range holds are omitted.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DetailedStatistics {
+
+    private final String symbol;
+    private final Instant from;
+    private final Instant to;
+    private final long count;
+    private final Double min;
+    private final Double max;
+    private final Double mean;
+    private final Double variance;
+    private final Double stddev;
+    private final Double volatility;
+    private final Double p50;
+    private final Double p95;
+    private final Double p99;
+}
@@ -0,0 +1,40 @@
+package org.crypto.recommendations.crypto_recommendation_service.model;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * Formats of the streamed price export.
+ */
+public enum ExportFormat {
+
+    // One {"symbol":..,"price":..,"timestamp":..} object per line
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    // Same layout as the price files the service loads: timestamp (epoch millis),symbol,price
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExportFormat parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid export format: " + value + ". Expected ndjson or csv.");
+        }
+    }
+}
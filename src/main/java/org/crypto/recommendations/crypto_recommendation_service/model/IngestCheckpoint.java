@@ -0,0 +1,28 @@
+package org.crypto.recommendations.crypto_recommendation_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * How far a symbol's price file has been loaded: every line before {@code byteOffset} is committed. The
+ * checksum covers the {@code checksumLength} bytes of the last of those lines and tells whether the file
+ * still holds what was loaded, or was replaced and has to be loaded from the start.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class IngestCheckpoint {
+
+    private final String symbol;
+    private final String fileName;
+    private final long byteOffset;
+    private final long lineNumber;
+    private final long checksum;
+    private final int checksumLength;
+    private final Instant updatedAt;
+}
@@ -0,0 +1,22 @@
+package org.crypto.recommendations.crypto_recommendation_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * The most recent tick of a symbol.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class LatestPrice {
+
+    private final String symbol;
+    private final double price;
+    private final Instant timestamp;
+}
@@ -0,0 +1,41 @@
+package org.crypto.recommendations.crypto_recommendation_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Progress of loading one symbol's price file. Instances are immutable; each state change publishes a new one.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class LoadStatus {
+
+    public enum State { PENDING, RUNNING, COMPLETED, FAILED }
+
+    private final String symbol;
+    private final State state;
+    private final long rows;
+    private final String error;
+    private final Instant startedAt;
+    private final Instant finishedAt;
+
+    public static LoadStatus pending(String symbol) {
+        return new LoadStatus(symbol, State.PENDING, 0, null, null, null);
+    }
+
+    public LoadStatus running() {
+        return new LoadStatus(symbol, State.RUNNING, 0, null, Instant.now(), null);
+    }
+
+    public LoadStatus completed(long rows) {
+        return new LoadStatus(symbol, State.COMPLETED, rows, null, startedAt, Instant.now());
+    }
+
+    public LoadStatus failed(String error) {
+        return new LoadStatus(symbol, State.FAILED, 0, error, startedAt, Instant.now());
+    }
+}
@@ -0,0 +1,19 @@
+package org.crypto.recommendations.crypto_recommendation_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A symbol with its normalized range, {@code (max - min) / min}.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class NormalizedRange {
+
+    private final String symbol;
+    private final double normalizedRange;
+}
@@ -0,0 +1,25 @@
+package org.crypto.recommendations.crypto_recommendation_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * OHLC bar of the bucket starting at {@code timestamp}.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class PriceBar {
+
+    private final Instant timestamp;
+    private final double open;
+    private final double high;
+    private final double low;
+    private final double close;
+    private final long count;
+}
@@ -0,0 +1,27 @@
+package org.crypto.recommendations.crypto_recommendation_service.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Price series of a symbol over {@code [from, to)}. Tick resolutions fill {@code points}, bar resolutions
+ * fill {@code bars}; the other list is omitted.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PriceHistory {
+
+    private final String symbol;
+    private final PriceResolution resolution;
+    private final Instant from;
+    private final Instant to;
+    private final List<PricePoint> points;
+    private final List<PriceBar> bars;
+}
@@ -0,0 +1,18 @@
+package org.crypto.recommendations.crypto_recommendation_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class PricePoint {
+
+    private final Instant timestamp;
+    private final double price;
+}
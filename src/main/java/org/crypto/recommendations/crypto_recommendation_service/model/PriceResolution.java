@@ -0,0 +1,39 @@
+package org.crypto.recommendations.crypto_recommendation_service.model;
+
+import java.util.Locale;
+
+/**
+ * Resolutions of the price history endpoint.
+ */
+public enum PriceResolution {
+
+    // Every tick in the range
+    RAW(null),
+    // Largest-Triangle-Three-Buckets downsampling of the ticks, keeping the visual shape of the series
+    LTTB(null),
+    // OHLC bars from the persisted rollups
+    HOUR(RollupGranularity.HOURLY),
+    DAY(RollupGranularity.DAILY),
+    WEEK(RollupGranularity.WEEKLY),
+    // RAW if the range fits, otherwise the finest bar size that fits, otherwise LTTB
+    AUTO(null);
+
+    private final RollupGranularity granularity;
+
+    PriceResolution(RollupGranularity granularity) {
+        this.granularity = granularity;
+    }
+
+    // Rollup granularity backing this resolution, or null if it is not bar based
+    public RollupGranularity getGranularity() {
+        return granularity;
+    }
+
+    public static PriceResolution parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid resolution: " + value + ". Expected one of raw, lttb, hour, day, week, auto.");
+        }
+    }
+}
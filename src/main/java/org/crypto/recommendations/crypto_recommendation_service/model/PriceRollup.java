@@ -0,0 +1,82 @@
+package org.crypto.recommendations.crypto_recommendation_service.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Open/high/low/close summary of one symbol's ticks within a single time bucket.
+ */
+@Entity
+@Table(name = "CRYPTO_PRICE_ROLLUPS",
+        uniqueConstraints = @UniqueConstraint(name = "uk_crypto_price_rollups_bucket", columnNames = {"symbol", "granularity", "bucket_start"}),
+        indexes = @Index(name = "idx_crypto_price_rollups_granularity_bucket", columnList = "granularity, bucket_start"))
+@Getter
+@Setter
+@ToString
+public class PriceRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String symbol;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @Column(nullable = false)
+    private Double open;
+
+    @Column(nullable = false)
+    private Double high;
+
+    @Column(nullable = false)
+    private Double low;
+
+    @Column(nullable = false)
+    private Double close;
+
+    @Column(name = "tick_count", nullable = false)
+    private Long count;
+
+    public PriceRollup(String symbol, RollupGranularity granularity, Instant bucketStart,
+                       Double open, Double high, Double low, Double close, Long count) {
+        this.symbol = symbol;
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.count = count;
+    }
+
+    public PriceRollup() {};
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        PriceRollup that = (PriceRollup) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
@@ -0,0 +1,22 @@
+package org.crypto.recommendations.crypto_recommendation_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * One live tick as posted to {@code POST /cryptos/ticks}.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class PriceTick {
+
+    private final String symbol;
+    private final Double price;
+    private final Instant timestamp;
+}
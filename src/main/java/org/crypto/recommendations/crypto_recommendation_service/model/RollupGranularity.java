@@ -0,0 +1,30 @@
+package org.crypto.recommendations.crypto_recommendation_service.model;
+
+import java.time.Duration;
+
+/**
+ * Bucket sizes for {@link PriceRollup}. All buckets are aligned to UTC; weeks start on Monday.
+ */
+public enum RollupGranularity {
+
+    HOURLY(Duration.ofHours(1), Duration.ZERO),
+    DAILY(Duration.ofDays(1), Duration.ZERO),
+    // The epoch (1970-01-01) was a Thursday, the first Monday is four days later
+    WEEKLY(Duration.ofDays(7), Duration.ofDays(4));
+
+    private final long widthMillis;
+    private final long offsetMillis;
+
+    RollupGranularity(Duration width, Duration offset) {
+        this.widthMillis = width.toMillis();
+        this.offsetMillis = offset.toMillis();
+    }
+
+    public long bucketStart(long timestampMillis) {
+        return Math.floorDiv(timestampMillis - offsetMillis, widthMillis) * widthMillis + offsetMillis;
+    }
+
+    public long bucketEnd(long bucketStartMillis) {
+        return bucketStartMillis + widthMillis;
+    }
+}
@@ -0,0 +1,21 @@
+package org.crypto.recommendations.crypto_recommendation_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Map;
+
+/**
+ * The statistics of {@code GET /cryptos/{symbol}/stats}, labelled with their symbol.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class SymbolStatistics {
+
+    private final String symbol;
+    private final Map<String, Double> statistics;
+}
@@ -0,0 +1,25 @@
+package org.crypto.recommendations.crypto_recommendation_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Price range of a symbol over a sliding window ending at its newest tick, covering {@code (from, to]}.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class WindowedRange {
+
+    private final String symbol;
+    private final double normalizedRange;
+    private final double min;
+    private final double max;
+    private final Instant from;
+    private final Instant to;
+}
@@ -0,0 +1,213 @@
+package org.crypto.recommendations.crypto_recommendation_service.repository;
+
+import org.crypto.recommendations.crypto_recommendation_service.store.PriceVisitor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Plain JDBC access to {@code CRYPTO_PRICES} for bulk paths where going through JPA entities would cost
+ * one object and, with identity keys, one round trip per row. Symbols are translated to their
+ * {@code SYMBOLS} keys once per call through {@link SymbolDictionary}.
+ */
+@Repository
+public class CryptoPriceJdbcRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO CRYPTO_PRICES (symbol_id, price, timestamp) VALUES (?, ?, ?)";
+    // (symbol_id, timestamp) is unique, so reloading a file replaces prices instead of failing on duplicates
+    private static final String H2_UPSERT_SQL = "MERGE INTO CRYPTO_PRICES (symbol_id, price, timestamp) KEY (symbol_id, timestamp) VALUES (?, ?, ?)";
+    private static final String POSTGRES_UPSERT_SQL = INSERT_SQL + " ON CONFLICT (symbol_id, timestamp) DO UPDATE SET price = EXCLUDED.price";
+
+    // Served by the (symbol_id, timestamp) unique index, already in the requested order
+    private static final String STREAM_SQL = "SELECT timestamp, price FROM CRYPTO_PRICES WHERE symbol_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SymbolDictionary symbolDictionary;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int fetchSize;
+    private final String upsertSql;
+
+    @Autowired
+    public CryptoPriceJdbcRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                     SymbolDictionary symbolDictionary,
+                                     @Value("${crypto.ingest.batch-size:1000}") int batchSize,
+                                     @Value("${crypto.export.fetch-size:1000}") int fetchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("crypto.ingest.batch-size must be positive: " + batchSize);
+        }
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("crypto.export.fetch-size must be positive: " + fetchSize);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.symbolDictionary = symbolDictionary;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.fetchSize = fetchSize;
+        this.upsertSql = upsertSqlFor(jdbcTemplate.getDataSource());
+    }
+
+    private static String upsertSqlFor(DataSource dataSource) {
+        return chooseSql(dataSource, H2_UPSERT_SQL, POSTGRES_UPSERT_SQL);
+    }
+
+    // Picks the statement for the database behind the data source; upserts have no portable syntax
+    static String chooseSql(DataSource dataSource, String h2Sql, String postgresSql) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            if ("H2".equals(product)) {
+                return h2Sql;
+            }
+            if ("PostgreSQL".equals(product)) {
+                return postgresSql;
+            }
+            throw new IllegalStateException("Unsupported database for upserts: " + product);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Could not determine database type", e);
+        }
+    }
+
+    /**
+     * Reads the symbol's prices with {@code from <= timestamp < to} (either bound may be null) in timestamp
+     * order and hands each row to the visitor as it is read. Rows are fetched {@code crypto.export.fetch-size}
+     * at a time, so memory use does not depend on the number of rows. PostgreSQL only streams through a
+     * cursor inside a transaction; outside one it buffers the whole result.
+     *
+     * @return the number of rows read
+     */
+    public long streamPrices(String symbol, Instant from, Instant to, PriceVisitor visitor) {
+        Integer symbolId = symbolDictionary.findId(symbol);
+        if (symbolId == null) {
+            return 0;
+        }
+        String sql = STREAM_SQL
+                + (from != null ? " AND timestamp >= ?" : "")
+                + (to != null ? " AND timestamp < ?" : "")
+                + " ORDER BY timestamp";
+        long[] rows = {0};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            int index = 1;
+            ps.setInt(index++, symbolId);
+            if (from != null) {
+                ps.setObject(index++, OffsetDateTime.ofInstant(from, ZoneOffset.UTC));
+            }
+            if (to != null) {
+                ps.setObject(index, OffsetDateTime.ofInstant(to, ZoneOffset.UTC));
+            }
+            return ps;
+        }, (ResultSet rs) -> {
+            visitor.visit(rs.getObject(1, OffsetDateTime.class).toInstant().toEpochMilli(), rs.getDouble(2));
+            rows[0]++;
+        });
+        return rows[0];
+    }
+
+    /**
+     * Opens a writer that buffers at most {@code crypto.ingest.batch-size} rows and sends each full buffer
+     * as one JDBC batch of upserts. Each batch joins the caller's transaction if there is one, and otherwise
+     * commits on its own, so a connection is only held while a batch is being written.
+     *
+     * @throws IllegalArgumentException if the symbol is not configured and has no stored prices
+     */
+    public Batch openBatch(String symbol) {
+        return new Batch(symbolDictionary.idFor(symbol));
+    }
+
+    public class Batch implements AutoCloseable {
+        private final int symbolId;
+        private final long[] timestamps = new long[batchSize];
+        private final double[] prices = new double[batchSize];
+        private int size;
+        private long written;
+        private Runnable onFlush;
+        private PriceVisitor onCommit;
+
+        Batch(int symbolId) {
+            this.symbolId = symbolId;
+        }
+
+        public void add(long timestampMillis, double price) {
+            timestamps[size] = timestampMillis;
+            prices[size] = price;
+            if (++size == batchSize) {
+                flush();
+            }
+        }
+
+        public void flush() {
+            if (size == 0) {
+                return;
+            }
+            int count = size;
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(upsertSql, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setInt(1, symbolId);
+                        ps.setDouble(2, prices[i]);
+                        ps.setObject(3, OffsetDateTime.ofInstant(Instant.ofEpochMilli(timestamps[i]), ZoneOffset.UTC));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return count;
+                    }
+                });
+                if (onFlush != null) {
+                    onFlush.run();
+                }
+            });
+            written += count;
+            if (onCommit != null) {
+                for (int i = 0; i < count; i++) {
+                    onCommit.visit(timestamps[i], prices[i]);
+                }
+            }
+            size = 0;
+        }
+
+        /**
+         * Runs the action in each flush's transaction, after the rows are written, so whatever it records
+         * commits or rolls back together with them.
+         */
+        public void onFlush(Runnable action) {
+            this.onFlush = action;
+        }
+
+        /**
+         * Hands each row of a flush to the visitor once the flush's transaction has completed, so copies of
+         * the rows kept elsewhere never hold one the database rolled back. When the batch joins a caller's
+         * transaction, that is before the caller commits.
+         */
+        public void onCommit(PriceVisitor visitor) {
+            this.onCommit = visitor;
+        }
+
+        // Rows sent to the database so far
+        public long getWritten() {
+            return written;
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+}
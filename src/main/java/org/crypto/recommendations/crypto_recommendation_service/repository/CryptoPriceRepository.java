@@ -23,9 +23,19 @@ public interface CryptoPriceRepository extends JpaRepository<CryptoPrice, Long>
     List<CryptoPrice> findByTimestampBetween(Instant start, Instant end, Sort sort);
     List<CryptoPrice> findByTimestampBetween(Instant start, Instant end);
 
-    // Custom query to find latest price by symbol, using Optional for null-safe handling
-    @Query("SELECT cp FROM CryptoPrice cp WHERE cp.symbol = :symbol AND cp.timestamp = (SELECT MAX(cp2.timestamp) FROM CryptoPrice cp2 WHERE cp2.symbol = :symbol)")
-    Optional<CryptoPrice> findLatestBySymbol(String symbol);
+    // Symbols with stored prices: one index probe per known symbol instead of a scan of every price row
+    @Query(value = "SELECT s.symbol FROM SYMBOLS s WHERE EXISTS (SELECT 1 FROM CRYPTO_PRICES cp WHERE cp.symbol_id = s.id)", nativeQuery = true)
+    List<String> findDistinctSymbols();
+
+    // Index-only existence check, e.g. before starting a streamed export
+    boolean existsBySymbol(String symbol);
+
+    // Latest price by symbol: a single backward step on the (symbol, timestamp) index instead of a correlated MAX subquery
+    Optional<CryptoPrice> findFirstBySymbolOrderByTimestampDesc(String symbol);
+
+    default Optional<CryptoPrice> findLatestBySymbol(String symbol) {
+        return findFirstBySymbolOrderByTimestampDesc(symbol);
+    }
 
     // Custom query for average price within a given time range for a specific symbol
     @Query("SELECT AVG(cp.price) FROM CryptoPrice cp WHERE cp.symbol = :symbol AND cp.timestamp BETWEEN :start AND :end")
@@ -0,0 +1,74 @@
+package org.crypto.recommendations.crypto_recommendation_service.repository;
+
+import org.crypto.recommendations.crypto_recommendation_service.model.IngestCheckpoint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Plain JDBC access to {@code INGEST_CHECKPOINTS}, one row per symbol. Checkpoints are saved from
+ * {@link CryptoPriceJdbcRepository.Batch#onFlush(Runnable)}, inside the transaction that writes the rows
+ * they cover.
+ */
+@Repository
+public class IngestCheckpointRepository {
+
+    private static final String SELECT_SQL = "SELECT file_name, byte_offset, line_number, checksum, checksum_length, updated_at "
+            + "FROM INGEST_CHECKPOINTS WHERE symbol_id = ?";
+    private static final String H2_UPSERT_SQL = "MERGE INTO INGEST_CHECKPOINTS "
+            + "(symbol_id, file_name, byte_offset, line_number, checksum, checksum_length, updated_at) "
+            + "KEY (symbol_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String POSTGRES_UPSERT_SQL = "INSERT INTO INGEST_CHECKPOINTS "
+            + "(symbol_id, file_name, byte_offset, line_number, checksum, checksum_length, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT (symbol_id) DO UPDATE SET file_name = EXCLUDED.file_name, "
+            + "byte_offset = EXCLUDED.byte_offset, line_number = EXCLUDED.line_number, checksum = EXCLUDED.checksum, "
+            + "checksum_length = EXCLUDED.checksum_length, updated_at = EXCLUDED.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SymbolDictionary symbolDictionary;
+    private final String upsertSql;
+
+    @Autowired
+    public IngestCheckpointRepository(JdbcTemplate jdbcTemplate, SymbolDictionary symbolDictionary) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.symbolDictionary = symbolDictionary;
+        this.upsertSql = CryptoPriceJdbcRepository.chooseSql(jdbcTemplate.getDataSource(), H2_UPSERT_SQL, POSTGRES_UPSERT_SQL);
+    }
+
+    public Optional<IngestCheckpoint> findBySymbol(String symbol) {
+        Integer symbolId = symbolDictionary.findId(symbol);
+        if (symbolId == null) {
+            return Optional.empty();
+        }
+        List<IngestCheckpoint> found = jdbcTemplate.query(SELECT_SQL, (rs, row) -> new IngestCheckpoint(
+                symbol,
+                rs.getString(1),
+                rs.getLong(2),
+                rs.getLong(3),
+                rs.getLong(4),
+                rs.getInt(5),
+                rs.getObject(6, OffsetDateTime.class).toInstant()), symbolId);
+        return found.stream().findFirst();
+    }
+
+    /**
+     * Inserts or replaces the symbol's checkpoint.
+     *
+     * @throws IllegalArgumentException if the symbol is not configured and has no stored prices
+     */
+    public void save(IngestCheckpoint checkpoint) {
+        jdbcTemplate.update(upsertSql,
+                symbolDictionary.idFor(checkpoint.getSymbol()),
+                checkpoint.getFileName(),
+                checkpoint.getByteOffset(),
+                checkpoint.getLineNumber(),
+                checkpoint.getChecksum(),
+                checkpoint.getChecksumLength(),
+                OffsetDateTime.ofInstant(checkpoint.getUpdatedAt(), ZoneOffset.UTC));
+    }
+}
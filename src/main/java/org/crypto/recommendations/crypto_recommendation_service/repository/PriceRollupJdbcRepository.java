@@ -0,0 +1,62 @@
+package org.crypto.recommendations.crypto_recommendation_service.repository;
+
+import org.crypto.recommendations.crypto_recommendation_service.model.PriceRollup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+
+/**
+ * Plain JDBC writes to {@code CRYPTO_PRICE_ROLLUPS}. Bars are upserted on their (symbol, granularity,
+ * bucket_start) key in JDBC batches, so refreshing a range costs a round trip per batch rather than one
+ * read plus one identity insert per bar, and refreshes of the same symbol that race each other both succeed
+ * instead of one failing on the unique constraint.
+ */
+@Repository
+public class PriceRollupJdbcRepository {
+
+    private static final String H2_UPSERT_SQL = "MERGE INTO CRYPTO_PRICE_ROLLUPS "
+            + "(symbol, granularity, bucket_start, open, high, low, close, tick_count) "
+            + "KEY (symbol, granularity, bucket_start) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String POSTGRES_UPSERT_SQL = "INSERT INTO CRYPTO_PRICE_ROLLUPS "
+            + "(symbol, granularity, bucket_start, open, high, low, close, tick_count) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (symbol, granularity, bucket_start) DO UPDATE SET "
+            + "open = EXCLUDED.open, high = EXCLUDED.high, low = EXCLUDED.low, close = EXCLUDED.close, "
+            + "tick_count = EXCLUDED.tick_count";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final String upsertSql;
+
+    @Autowired
+    public PriceRollupJdbcRepository(JdbcTemplate jdbcTemplate,
+                                     @Value("${crypto.ingest.batch-size:1000}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("crypto.ingest.batch-size must be positive: " + batchSize);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.upsertSql = CryptoPriceJdbcRepository.chooseSql(jdbcTemplate.getDataSource(), H2_UPSERT_SQL, POSTGRES_UPSERT_SQL);
+    }
+
+    // Inserts or replaces each bar, in batches of crypto.ingest.batch-size; joins the caller's transaction
+    public void upsertAll(Collection<PriceRollup> bars) {
+        if (bars.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(upsertSql, bars, batchSize, (ps, bar) -> {
+            ps.setString(1, bar.getSymbol());
+            ps.setString(2, bar.getGranularity().name());
+            ps.setObject(3, OffsetDateTime.ofInstant(bar.getBucketStart(), ZoneOffset.UTC));
+            ps.setDouble(4, bar.getOpen());
+            ps.setDouble(5, bar.getHigh());
+            ps.setDouble(6, bar.getLow());
+            ps.setDouble(7, bar.getClose());
+            ps.setLong(8, bar.getCount());
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package org.crypto.recommendations.crypto_recommendation_service.repository;
+
+import org.crypto.recommendations.crypto_recommendation_service.model.PriceRollup;
+import org.crypto.recommendations.crypto_recommendation_service.model.RollupGranularity;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface PriceRollupRepository extends JpaRepository<PriceRollup, Long> {
+
+    // One row per symbol for the given bucket, e.g. every coin's daily bar for a day
+    List<PriceRollup> findByGranularityAndBucketStart(RollupGranularity granularity, Instant bucketStart);
+
+    // Bars of a single symbol over a range of buckets, for long-period queries that should not touch raw ticks
+    List<PriceRollup> findBySymbolAndGranularityAndBucketStartBetween(String symbol, RollupGranularity granularity,
+                                                                      Instant start, Instant end, Sort sort);
+}
@@ -0,0 +1,134 @@
+package org.crypto.recommendations.crypto_recommendation_service.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.crypto.recommendations.crypto_recommendation_service.config.CryptoConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process cache of the {@code SYMBOLS} dimension table, which maps each symbol to the small integer key
+ * that {@code CRYPTO_PRICES} rows reference instead of repeating the symbol text. Keys never change once
+ * assigned, so entries are cached forever and each symbol costs at most one lookup per process.
+ * <p>
+ * Only configured symbols get a key, and they get it when they are configured: at startup for every stored
+ * and configured symbol, and through {@link #idFor(String)} for symbols registered later. Looking up a
+ * symbol from a request therefore never adds rows, and {@link #resolve(String)}, which Hibernate calls while
+ * binding query parameters on a connection it already holds, only reads the cache.
+ */
+@Repository
+public class SymbolDictionary {
+
+    // Matches no rows; used in queries for symbols that have no key
+    public static final int UNKNOWN_ID = -1;
+
+    private static final String SELECT_ID_SQL = "SELECT id FROM SYMBOLS WHERE symbol = ?";
+    private static final String SELECT_SYMBOL_SQL = "SELECT symbol FROM SYMBOLS WHERE id = ?";
+    private static final String SELECT_ALL_SQL = "SELECT id, symbol FROM SYMBOLS";
+    // A symbol another writer added first is left as it is, without failing the caller's transaction
+    private static final String H2_INSERT_SQL = "MERGE INTO SYMBOLS (symbol) KEY (symbol) VALUES (?)";
+    private static final String POSTGRES_INSERT_SQL = "INSERT INTO SYMBOLS (symbol) VALUES (?) ON CONFLICT (symbol) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CryptoConfig cryptoConfig;
+    private final String insertSql;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final Map<Integer, String> symbols = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SymbolDictionary(JdbcTemplate jdbcTemplate, CryptoConfig cryptoConfig) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cryptoConfig = cryptoConfig;
+        this.insertSql = CryptoPriceJdbcRepository.chooseSql(jdbcTemplate.getDataSource(), H2_INSERT_SQL, POSTGRES_INSERT_SQL);
+    }
+
+    // Runs once the schema is migrated, as JdbcTemplate users are initialized after Flyway
+    @PostConstruct
+    void assignKeys() {
+        jdbcTemplate.query(SELECT_ALL_SQL, (ResultSet rs) -> {
+            cache(rs.getString(2), rs.getInt(1));
+        });
+        for (String symbol : cryptoConfig.getSymbols().keySet()) {
+            idFor(symbol);
+        }
+    }
+
+    // Key of the symbol, or null if it has none yet
+    public Integer findId(String symbol) {
+        Integer id = ids.get(symbol);
+        if (id != null) {
+            return id;
+        }
+        List<Integer> found = jdbcTemplate.queryForList(SELECT_ID_SQL, Integer.class, symbol);
+        if (found.isEmpty()) {
+            return null;
+        }
+        cacheOnCommit(symbol, found.get(0));
+        return found.get(0);
+    }
+
+    /**
+     * Returns the symbol's key, assigning one first if the symbol is configured. The key is added on the
+     * caller's connection and transaction, and only cached once that commits.
+     *
+     * @throws IllegalArgumentException if the symbol has no key and is not configured
+     */
+    public int idFor(String symbol) {
+        Integer id = findId(symbol);
+        if (id != null) {
+            return id;
+        }
+        if (!cryptoConfig.getSymbols().containsKey(symbol)) {
+            throw new IllegalArgumentException("Invalid cryptocurrency symbol: " + symbol);
+        }
+        jdbcTemplate.update(insertSql, symbol);
+        List<Integer> found = jdbcTemplate.queryForList(SELECT_ID_SQL, Integer.class, symbol);
+        if (found.isEmpty()) {
+            throw new IllegalStateException("Symbol " + symbol + " was inserted but cannot be found");
+        }
+        cacheOnCommit(symbol, found.get(0));
+        return found.get(0);
+    }
+
+    // Key to query the symbol by, or UNKNOWN_ID if it has none; reads the cache only, never the database
+    public int resolve(String symbol) {
+        Integer id = ids.get(symbol);
+        return id != null ? id : UNKNOWN_ID;
+    }
+
+    public String symbolOf(int id) {
+        String symbol = symbols.get(id);
+        if (symbol != null) {
+            return symbol;
+        }
+        symbol = jdbcTemplate.queryForObject(SELECT_SYMBOL_SQL, String.class, id);
+        cache(symbol, id);
+        return symbol;
+    }
+
+    // A key read inside a transaction may be one it added, so a rollback must not leave it cached
+    private void cacheOnCommit(String symbol, int id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache(symbol, id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache(symbol, id);
+            }
+        });
+    }
+
+    private void cache(String symbol, int id) {
+        ids.put(symbol, id);
+        symbols.put(id, symbol);
+    }
+}
@@ -0,0 +1,30 @@
+package org.crypto.recommendations.crypto_recommendation_service.repository;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Stores a symbol as its {@code SYMBOLS} key, so entities and repository queries keep working with symbol
+ * strings while rows hold and compare integers. Created by Hibernate through the Spring bean container.
+ */
+@Converter
+public class SymbolIdConverter implements AttributeConverter<String, Integer> {
+
+    private final SymbolDictionary symbolDictionary;
+
+    @Autowired
+    public SymbolIdConverter(SymbolDictionary symbolDictionary) {
+        this.symbolDictionary = symbolDictionary;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String symbol) {
+        return symbol == null ? null : symbolDictionary.resolve(symbol);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        return id == null ? null : symbolDictionary.symbolOf(id);
+    }
+}
@@ -0,0 +1,84 @@
+package org.crypto.recommendations.crypto_recommendation_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.crypto.recommendations.crypto_recommendation_service.config.CryptoConfig;
+import org.crypto.recommendations.crypto_recommendation_service.model.LoadStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Loads every configured symbol in parallel on a bounded executor. Symbols load independently, so one bad
+ * file does not abort the others. A symbol's load is not one transaction: it commits every flush batch
+ * together with a checkpoint of its position in the file. A file that fails part way therefore keeps the
+ * batches committed before the failure, and the next load resumes after the last of them.
+ */
+@Slf4j
+@Service
+public class BulkLoadService {
+
+    private final CryptoConfig cryptoConfig;
+    private final CryptoService cryptoService;
+    private final Executor executor;
+
+    private final Map<String, LoadStatus> progress = new ConcurrentHashMap<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Autowired
+    public BulkLoadService(CryptoConfig cryptoConfig, CryptoService cryptoService,
+                           @Qualifier("cryptoLoadExecutor") Executor executor) {
+        this.cryptoConfig = cryptoConfig;
+        this.cryptoService = cryptoService;
+        this.executor = executor;
+    }
+
+    /**
+     * Loads all symbols and blocks until every one of them has completed or failed.
+     *
+     * @throws IllegalStateException if a bulk load is already in progress
+     */
+    public Map<String, LoadStatus> loadAll() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A bulk load is already in progress");
+        }
+        try {
+            progress.clear();
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            for (String symbol : cryptoConfig.getSymbols().keySet()) {
+                progress.put(symbol, LoadStatus.pending(symbol));
+                tasks.add(CompletableFuture.runAsync(() -> load(symbol), executor));
+            }
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+            return getProgress();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Snapshot of the latest per-symbol status, sorted by symbol
+    public Map<String, LoadStatus> getProgress() {
+        return Collections.unmodifiableMap(new TreeMap<>(progress));
+    }
+
+    private void load(String symbol) {
+        LoadStatus status = progress.compute(symbol, (key, current) -> current.running());
+        try {
+            long rows = cryptoService.loadCryptoData(symbol);
+            progress.put(symbol, status.completed(rows));
+            log.info("Loaded {} rows for {}", rows, symbol);
+        } catch (Exception e) {
+            progress.put(symbol, status.failed(e.getMessage()));
+            log.error("Failed to load crypto data for {}", symbol, e);
+        }
+    }
+}
@@ -1,101 +1,341 @@
 package org.crypto.recommendations.crypto_recommendation_service.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.crypto.recommendations.crypto_recommendation_service.config.CacheConfig;
 import org.crypto.recommendations.crypto_recommendation_service.config.CryptoConfig;
-import org.crypto.recommendations.crypto_recommendation_service.model.CryptoPrice;
+import org.crypto.recommendations.crypto_recommendation_service.model.DetailedStatistics;
+import org.crypto.recommendations.crypto_recommendation_service.model.IngestCheckpoint;
+import org.crypto.recommendations.crypto_recommendation_service.model.LatestPrice;
+import org.crypto.recommendations.crypto_recommendation_service.model.NormalizedRange;
+import org.crypto.recommendations.crypto_recommendation_service.model.PriceBar;
+import org.crypto.recommendations.crypto_recommendation_service.model.PriceHistory;
+import org.crypto.recommendations.crypto_recommendation_service.model.PricePoint;
+import org.crypto.recommendations.crypto_recommendation_service.model.PriceResolution;
+import org.crypto.recommendations.crypto_recommendation_service.model.PriceRollup;
+import org.crypto.recommendations.crypto_recommendation_service.model.RollupGranularity;
+import org.crypto.recommendations.crypto_recommendation_service.model.WindowedRange;
+import org.crypto.recommendations.crypto_recommendation_service.repository.CryptoPriceJdbcRepository;
 import org.crypto.recommendations.crypto_recommendation_service.repository.CryptoPriceRepository;
+import org.crypto.recommendations.crypto_recommendation_service.repository.IngestCheckpointRepository;
+import org.crypto.recommendations.crypto_recommendation_service.store.LttbDownsampler;
+import org.crypto.recommendations.crypto_recommendation_service.store.PriceAggregate;
+import org.crypto.recommendations.crypto_recommendation_service.store.PriceSeries;
+import org.crypto.recommendations.crypto_recommendation_service.store.PriceStore;
+import org.crypto.recommendations.crypto_recommendation_service.store.PriceSummary;
+import org.crypto.recommendations.crypto_recommendation_service.store.PriceVisitor;
 import org.crypto.recommendations.crypto_recommendation_service.util.CSVLoader;
+import org.crypto.recommendations.crypto_recommendation_service.util.PriceFileCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 public class CryptoService {
 
+    // Upper bound on the points or bars of one price history response
+    public static final int MAX_HISTORY_POINTS = 10_000;
+    // Upper bound on the symbols of one top-K response
+    public static final int MAX_TOP_K = 100;
+
     private final CryptoConfig cryptoConfig;
     private final CryptoPriceRepository cryptoPriceRepository;
+    private final CryptoPriceJdbcRepository cryptoPriceJdbcRepository;
+    private final IngestCheckpointRepository ingestCheckpointRepository;
     private final CSVLoader csvLoader;
+    private final PriceStore priceStore;
+    private final RollupService rollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicBoolean storeHydrated = new AtomicBoolean();
 
     @Autowired
-    public CryptoService(CryptoConfig cryptoConfig, CryptoPriceRepository cryptoPriceRepository, CSVLoader csvLoader) {
+    public CryptoService(CryptoConfig cryptoConfig, CryptoPriceRepository cryptoPriceRepository,
+                         CryptoPriceJdbcRepository cryptoPriceJdbcRepository,
+                         IngestCheckpointRepository ingestCheckpointRepository, CSVLoader csvLoader,
+                         PriceStore priceStore, RollupService rollupService,
+                         ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
         this.cryptoConfig = cryptoConfig;
         this.cryptoPriceRepository = cryptoPriceRepository;
+        this.cryptoPriceJdbcRepository = cryptoPriceJdbcRepository;
+        this.ingestCheckpointRepository = ingestCheckpointRepository;
         this.csvLoader = csvLoader;
+        this.priceStore = priceStore;
+        this.rollupService = rollupService;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
     }
 
-    @Transactional
-    public void loadCryptoData(String symbol) {
+    /**
+     * Streams the symbol's CSV file into the database in JDBC batches and into the in-memory store,
+     * then refreshes the rollups for the ingested time range and announces the change so cached results
+     * depending on it are evicted.
+     *
+     * <p>Not one transaction: each batch commits on its own, so a load holds a pooled connection only while
+     * writing, not while parsing. Each batch also saves the position in the file its rows end at, and the
+     * next load of the same file starts from there. Loading a file again therefore only reads the lines
+     * appended since, and a failed load resumes after its last committed batch. A file that no longer
+     * holds the checkpointed line at that position was replaced and is loaded from the start; rows are
+     * upserts, so that replaces prices instead of duplicating them.
+     *
+     * <p>Rows reach the in-memory store only once their batch has committed, so the store never serves a
+     * row the database does not hold. Rollups and cache evictions cover what was committed, also when the
+     * load fails part way.
+     *
+     * @return the number of rows read from the file, not counting those skipped as already loaded
+     */
+    public long loadCryptoData(String symbol) {
         String fileName = cryptoConfig.getSymbols().get(symbol);
 
         if (fileName == null) {
             throw new IllegalArgumentException("Invalid cryptocurrency symbol: " + symbol);
         }
 
-        List<CryptoPrice> prices = csvLoader.loadPricesFromCSV(fileName);
-        cryptoPriceRepository.saveAll(prices);
+        // Hydrated first: a resumed load only reads the tail of the file, the rest is in the database
+        PriceSeries series = seriesForIngest(symbol);
+        CryptoPriceJdbcRepository.Batch batch = cryptoPriceJdbcRepository.openBatch(symbol);
+        PriceFileCursor cursor = resumeCursor(symbol, fileName);
+        batch.onFlush(() -> ingestCheckpointRepository.save(new IngestCheckpoint(symbol, fileName,
+                cursor.getOffset(), cursor.getLineNumber(), cursor.lineChecksum(), cursor.getLineLength(), Instant.now())));
+        IngestSink sink = new IngestSink(batch, series);
+        batch.onCommit(sink::committed);
+        try (batch) {
+            csvLoader.streamPricesFromCSV(fileName, cursor, sink);
+        } catch (RuntimeException e) {
+            // Batches commit on their own, so what was committed before the failure is served from now on
+            try {
+                announceCommitted(symbol, sink);
+            } catch (RuntimeException announceFailure) {
+                e.addSuppressed(announceFailure);
+            }
+            throw e;
+        } finally {
+            // Batches commit on their own, so a failed load still reports what it wrote
+            ingestedRows(symbol, "parsed").increment(sink.rows);
+            ingestedRows(symbol, "inserted").increment(batch.getWritten());
+        }
+
+        announceCommitted(symbol, sink);
+        return sink.rows;
     }
 
+    // Refreshes the rollups of the committed time range and evicts the cached answers depending on it
+    private void announceCommitted(String symbol, IngestSink sink) {
+        if (sink.committedRows > 0) {
+            rollupService.refresh(symbol, sink.from, sink.to);
+            eventPublisher.publishEvent(new PriceDataChangedEvent(symbol, sink.from, sink.to));
+        }
+    }
+
+    // Where the last load of the file stopped, or its start if it was never loaded or has been replaced
+    private PriceFileCursor resumeCursor(String symbol, String fileName) {
+        Optional<IngestCheckpoint> checkpoint = ingestCheckpointRepository.findBySymbol(symbol)
+                .filter(saved -> saved.getFileName().equals(fileName));
+        if (checkpoint.isEmpty()) {
+            return new PriceFileCursor();
+        }
+        IngestCheckpoint saved = checkpoint.get();
+        OptionalLong checksum = csvLoader.checksumOf(fileName, saved.getByteOffset(), saved.getChecksumLength());
+        if (checksum.isEmpty() || checksum.getAsLong() != saved.getChecksum()) {
+            log.info("Price file {} of {} changed since it was loaded; loading it from the start", fileName, symbol);
+            return new PriceFileCursor();
+        }
+        log.info("Resuming load of {} from line {} of {}", symbol, saved.getLineNumber() + 1, fileName);
+        return new PriceFileCursor(saved.getByteOffset(), saved.getLineNumber());
+    }
 
+    @Cacheable(cacheNames = CacheConfig.STATISTICS_CACHE, sync = true)
     public Map<String, Double> getCryptoStatistics(String symbol) {
-        List<CryptoPrice> prices = cryptoPriceRepository.findBySymbol(symbol, Sort.by(Sort.Direction.ASC, "timestamp"));
+        // Cached and shared between callers, so it must not be modified
+        return Collections.unmodifiableMap(statisticsOf(aggregateFor(symbol)));
+    }
 
-        double min = prices.stream().mapToDouble(CryptoPrice::getPrice).min().orElse(0);
-        double max = prices.stream().mapToDouble(CryptoPrice::getPrice).max().orElse(0);
-        Instant oldest = prices.stream().map(CryptoPrice::getTimestamp).min(Instant::compareTo).orElse(null);
-        Instant newest = prices.stream().map(CryptoPrice::getTimestamp).max(Instant::compareTo).orElse(null);
+    /**
+     * Returns the statistics of {@link #getCryptoStatistics(String)} plus the normalized range for each of the
+     * given symbols, or for every configured symbol if none are given, keyed by symbol in request order.
+     * Every symbol is answered from its running aggregate in memory, so the whole batch costs at most the
+     * one-time hydration of the store rather than a query per symbol.
+     *
+     * @throws IllegalArgumentException if a symbol is not configured
+     */
+    public Map<String, Map<String, Double>> getBatchStatistics(Collection<String> symbols) {
+        Collection<String> requested = symbols == null || symbols.isEmpty()
+                ? new TreeSet<>(cryptoConfig.getSymbols().keySet())
+                : new LinkedHashSet<>(symbols);
+        for (String symbol : requested) {
+            if (!cryptoConfig.getSymbols().containsKey(symbol)) {
+                throw new IllegalArgumentException("Invalid cryptocurrency symbol: " + symbol);
+            }
+        }
+        hydrateStore();
 
-        Map<String, Double> stats = new HashMap<>();
-        stats.put("min", min);
-        stats.put("max", max);
-        stats.put("oldest", oldest != null ? (double) oldest.getEpochSecond() : 0);
-        stats.put("newest", newest != null ? (double) newest.getEpochSecond() : 0);
+        Map<String, Map<String, Double>> statistics = new LinkedHashMap<>();
+        for (String symbol : requested) {
+            // Every ingest path keeps the store complete once hydrated, so a symbol missing here has no prices
+            PriceAggregate aggregate = priceStore.aggregate(symbol);
+            Map<String, Double> stats = statisticsOf(aggregate);
+            stats.put("normalizedRange", aggregate != null ? aggregate.normalizedRange() : 0);
+            statistics.put(symbol, Collections.unmodifiableMap(stats));
+        }
+        return statistics;
+    }
 
-        return stats;
+    /**
+     * Returns count, min, max, mean, variance, standard deviation, log-return volatility and approximate
+     * p50/p95/p99 of the symbol's prices over {@code [from, to)}, or over all of its prices when a bound is
+     * omitted. Computed in one pass over the range, with whole days merged from cached per-day summaries.
+     *
+     * @return empty if no prices are stored for the symbol
+     * @throws IllegalArgumentException if {@code from} is not before {@code to}
+     */
+    public Optional<DetailedStatistics> getDetailedStatistics(String symbol, Instant from, Instant to) {
+        PriceAggregate aggregate = aggregateFor(symbol);
+        if (aggregate == null) {
+            return Optional.empty();
+        }
+
+        long fromMillis = from != null ? from.toEpochMilli() : aggregate.getOldestMillis();
+        long toMillis = to != null ? to.toEpochMilli() : aggregate.getNewestMillis() + 1;
+        if (fromMillis >= toMillis) {
+            throw new IllegalArgumentException("'from' must be before 'to'.");
+        }
+
+        PriceSummary summary = priceStore.find(symbol).summarize(fromMillis, toMillis);
+        boolean empty = summary.getCount() == 0;
+        return Optional.of(new DetailedStatistics(symbol, Instant.ofEpochMilli(fromMillis), Instant.ofEpochMilli(toMillis),
+                summary.getCount(),
+                empty ? null : summary.getMin(),
+                empty ? null : summary.getMax(),
+                empty ? null : summary.getMean(),
+                finiteOrNull(summary.variance()),
+                finiteOrNull(Math.sqrt(summary.variance())),
+                finiteOrNull(summary.volatility()),
+                finiteOrNull(summary.quantile(0.5)),
+                finiteOrNull(summary.quantile(0.95)),
+                finiteOrNull(summary.quantile(0.99))));
     }
 
+    @Cacheable(cacheNames = CacheConfig.RANKINGS_CACHE, sync = true)
     public List<String> getCryptosSortedByNormalizedRange() {
-        List<String> symbols = cryptoPriceRepository.findAll()
-                .stream()
-                .map(CryptoPrice::getSymbol)
-                .distinct()
-                .collect(Collectors.toList());
+        return getNormalizedRanges(0, null).stream()
+                .map(NormalizedRange::getSymbol)
+                .collect(Collectors.toUnmodifiableList());
+    }
 
-        return symbols.stream()
-                .sorted((s1, s2) -> Double.compare(calculateNormalizedRange(s2), calculateNormalizedRange(s1)))
-                .collect(Collectors.toList());
+    /**
+     * Returns symbols with their normalized range, highest first. Each range comes from the symbol's running
+     * aggregate, so this is one O(1) lookup per symbol plus a sort.
+     *
+     * @param offset number of leading entries to skip
+     * @param limit  maximum number of entries to return, or {@code null} for all
+     */
+    @Cacheable(cacheNames = CacheConfig.RANKINGS_CACHE, sync = true)
+    public List<NormalizedRange> getNormalizedRanges(int offset, Integer limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative: " + offset);
+        }
+        if (limit != null && limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        hydrateStore();
+
+        List<NormalizedRange> ranges = new ArrayList<>();
+        for (PriceAggregate aggregate : priceStore.aggregates()) {
+            ranges.add(new NormalizedRange(aggregate.getSymbol(), aggregate.normalizedRange()));
+        }
+        ranges.sort(Comparator.comparingDouble(NormalizedRange::getNormalizedRange).reversed());
+
+        int from = Math.min(offset, ranges.size());
+        int to = limit == null ? ranges.size() : (int) Math.min((long) from + limit, ranges.size());
+        return List.copyOf(ranges.subList(from, to));
+    }
+
+    /**
+     * Returns at most {@code k} symbols with the highest normalized range over the sliding window of the given
+     * length, highest first. Each window ends at the symbol's newest tick. The ranking is kept up to date as
+     * ticks arrive, so this only re-ranks the symbols that changed since the previous call.
+     *
+     * @param window window length such as {@code 24h} or {@code PT24H}; must be one of
+     *               {@code crypto.recommendation.windows}
+     * @throws IllegalArgumentException if the window is malformed or not configured, or {@code k} is out of range
+     */
+    public List<WindowedRange> getTopByWindowedRange(String window, int k) {
+        if (k <= 0 || k > MAX_TOP_K) {
+            throw new IllegalArgumentException("k must be between 1 and " + MAX_TOP_K + ": " + k);
+        }
+        Duration length = DurationStyle.detectAndParse(window);
+        hydrateStore();
+        return priceStore.topByWindowedRange(length, k);
+    }
+
+    // Newest tick of the symbol, answered from memory once the symbol is in the store
+    public Optional<LatestPrice> getLatestPrice(String symbol) {
+        if (aggregateFor(symbol) == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(priceStore.find(symbol).latest());
     }
 
+    // Newest tick of every symbol, ordered by symbol
+    public List<LatestPrice> getLatestPrices() {
+        hydrateStore();
+
+        List<LatestPrice> prices = new ArrayList<>();
+        for (String symbol : priceStore.symbols()) {
+            LatestPrice latest = priceStore.find(symbol).latest();
+            if (latest != null) {
+                prices.add(latest);
+            }
+        }
+        prices.sort(Comparator.comparing(LatestPrice::getSymbol));
+        return prices;
+    }
+
+    @Cacheable(cacheNames = CacheConfig.HIGHEST_RANGE_CACHE, sync = true)
     public String getCryptoWithHighestRangeForDay(String date) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
         try {
             LocalDate localDate = LocalDate.parse(date, formatter);
             Instant start = localDate.atStartOfDay(ZoneOffset.UTC).toInstant();
-            Instant end = start.plus(1, ChronoUnit.DAYS);
 
-            List<CryptoPrice> dailyPrices = cryptoPriceRepository.findByTimestampBetween(start, end);
-            if (dailyPrices.isEmpty()) {
+            // One pre-computed daily bar per symbol instead of every tick of the day
+            List<PriceRollup> dailyRollups = rollupService.findRollups(RollupGranularity.DAILY, start);
+            if (dailyRollups.isEmpty()) {
                 throw new IllegalArgumentException("No data available for the given date: " + date);
             }
 
-            return dailyPrices.stream()
-                    .collect(Collectors.groupingBy(CryptoPrice::getSymbol, Collectors.summarizingDouble(CryptoPrice::getPrice)))
-                    .entrySet().stream()
-                    .filter(entry -> entry.getValue().getMin() > 0) // Prevent division by zero
-                    .max(Comparator.comparingDouble(entry -> (entry.getValue().getMax() - entry.getValue().getMin()) / entry.getValue().getMin()))
-                    .map(Map.Entry::getKey)
+            return dailyRollups.stream()
+                    .filter(rollup -> rollup.getLow() > 0) // Prevent division by zero
+                    .max(Comparator.comparingDouble(rollup -> (rollup.getHigh() - rollup.getLow()) / rollup.getLow()))
+                    .map(PriceRollup::getSymbol)
                     .orElse(null);
 
         } catch (DateTimeParseException e) {
@@ -103,13 +343,169 @@ public class CryptoService {
         }
     }
 
+    /**
+     * Returns the prices of a symbol over {@code [from, to)}, defaulting to its whole history, as at most
+     * {@code maxPoints} ticks or bars. Ticks come from the in-memory series, bars from the persisted rollups of
+     * the buckets overlapping the range, so the cost of a response does not grow with the width of the range
+     * beyond a binary search and one scan.
+     *
+     * @return the history, or empty if no prices are stored for the symbol
+     */
+    public Optional<PriceHistory> getPriceHistory(String symbol, Instant from, Instant to, PriceResolution resolution, int maxPoints) {
+        if (maxPoints < 3 || maxPoints > MAX_HISTORY_POINTS) {
+            throw new IllegalArgumentException("maxPoints must be between 3 and " + MAX_HISTORY_POINTS + ": " + maxPoints);
+        }
+        PriceAggregate aggregate = aggregateFor(symbol);
+        if (aggregate == null) {
+            return Optional.empty();
+        }
 
-    private double calculateNormalizedRange(String symbol) {
-        List<CryptoPrice> prices = cryptoPriceRepository.findBySymbol(symbol, Sort.by(Sort.Direction.ASC, "timestamp"));
-        if (prices.isEmpty()) return 0;
+        long fromMillis = from != null ? from.toEpochMilli() : aggregate.getOldestMillis();
+        long toMillis = to != null ? to.toEpochMilli() : aggregate.getNewestMillis() + 1;
+        if (fromMillis >= toMillis) {
+            throw new IllegalArgumentException("'from' must be before 'to'.");
+        }
+
+        PriceSeries series = priceStore.find(symbol);
+        int ticks = series.count(fromMillis, toMillis);
+        PriceResolution resolved = resolution == PriceResolution.AUTO
+                ? autoResolution(ticks, fromMillis, toMillis, maxPoints)
+                : resolution;
+
+        List<PricePoint> points = null;
+        List<PriceBar> bars = null;
+        switch (resolved) {
+            case RAW -> {
+                if (ticks > maxPoints) {
+                    throw new IllegalArgumentException("The range holds " + ticks + " prices, more than maxPoints=" + maxPoints
+                            + ". Use a downsampled resolution or a narrower range.");
+                }
+                List<PricePoint> raw = new ArrayList<>(ticks);
+                series.scan(fromMillis, toMillis, (timestamp, price) -> raw.add(new PricePoint(Instant.ofEpochMilli(timestamp), price)));
+                points = raw;
+            }
+            case LTTB -> {
+                LttbDownsampler downsampler = new LttbDownsampler(ticks, maxPoints);
+                series.scan(fromMillis, toMillis, downsampler);
+                points = downsampler.finish();
+            }
+            default -> bars = findBars(symbol, resolved.getGranularity(), fromMillis, toMillis, maxPoints);
+        }
+        return Optional.of(new PriceHistory(symbol, resolved, Instant.ofEpochMilli(fromMillis), Instant.ofEpochMilli(toMillis), points, bars));
+    }
+
+    // Raw ticks if they fit, else the finest bars that fit, else LTTB
+    private static PriceResolution autoResolution(int ticks, long fromMillis, long toMillis, int maxPoints) {
+        if (ticks <= maxPoints) {
+            return PriceResolution.RAW;
+        }
+        for (PriceResolution candidate : List.of(PriceResolution.HOUR, PriceResolution.DAY, PriceResolution.WEEK)) {
+            if (bucketCount(candidate.getGranularity(), fromMillis, toMillis) <= maxPoints) {
+                return candidate;
+            }
+        }
+        return PriceResolution.LTTB;
+    }
+
+    private List<PriceBar> findBars(String symbol, RollupGranularity granularity, long fromMillis, long toMillis, int maxPoints) {
+        long buckets = bucketCount(granularity, fromMillis, toMillis);
+        if (buckets > maxPoints) {
+            throw new IllegalArgumentException("The range spans " + buckets + " " + granularity.name().toLowerCase()
+                    + " buckets, more than maxPoints=" + maxPoints + ". Use a coarser resolution or a narrower range.");
+        }
+        return rollupService.findRollups(symbol, granularity,
+                        Instant.ofEpochMilli(granularity.bucketStart(fromMillis)), Instant.ofEpochMilli(granularity.bucketStart(toMillis - 1)))
+                .stream()
+                .map(rollup -> new PriceBar(rollup.getBucketStart(), rollup.getOpen(), rollup.getHigh(), rollup.getLow(),
+                        rollup.getClose(), rollup.getCount()))
+                .collect(Collectors.toList());
+    }
 
-        double min = prices.stream().mapToDouble(CryptoPrice::getPrice).min().orElse(0);
-        double max = prices.stream().mapToDouble(CryptoPrice::getPrice).max().orElse(0);
-        return (max - min) / min;
+    // Number of buckets overlapping [fromMillis, toMillis)
+    private static long bucketCount(RollupGranularity granularity, long fromMillis, long toMillis) {
+        long first = granularity.bucketStart(fromMillis);
+        long width = granularity.bucketEnd(first) - first;
+        return (granularity.bucketStart(toMillis - 1) - first) / width + 1;
+    }
+
+    // Series to add live ticks to, hydrated from the database first so it never holds only the new ticks
+    public PriceSeries seriesForIngest(String symbol) {
+        aggregateFor(symbol);
+        return priceStore.getOrCreate(symbol);
+    }
+
+    // Serves reads from the in-memory store, hydrating it from the database the first time a symbol is seen
+    private PriceAggregate aggregateFor(String symbol) {
+        PriceSeries series = priceStore.hydrate(symbol,
+                key -> cryptoPriceRepository.findBySymbol(key, Sort.by(Sort.Direction.ASC, "timestamp")));
+        return series != null ? series.aggregate() : null;
+    }
+
+    // Pulls in symbols that so far exist only in the database, e.g. after a restart against a persistent
+    // database. Runs once; from then on every ingest path keeps the store complete. A caller arriving while
+    // another is still hydrating walks the symbols too, waiting on each one that is not published yet.
+    private void hydrateStore() {
+        if (storeHydrated.get()) {
+            return;
+        }
+        for (String symbol : cryptoPriceRepository.findDistinctSymbols()) {
+            aggregateFor(symbol);
+        }
+        storeHydrated.set(true);
+    }
+
+    private static Map<String, Double> statisticsOf(PriceAggregate aggregate) {
+        Map<String, Double> stats = new HashMap<>();
+        stats.put("min", aggregate != null ? aggregate.getMin() : 0);
+        stats.put("max", aggregate != null ? aggregate.getMax() : 0);
+        stats.put("oldest", aggregate != null ? (double) toEpochSecond(aggregate.getOldestMillis()) : 0);
+        stats.put("newest", aggregate != null ? (double) toEpochSecond(aggregate.getNewestMillis()) : 0);
+        return stats;
+    }
+
+    private static Double finiteOrNull(double value) {
+        return Double.isFinite(value) ? value : null;
+    }
+
+    private static long toEpochSecond(long epochMillis) {
+        return Math.floorDiv(epochMillis, 1000L);
+    }
+
+    // Rows of a load at the given stage: parsed from the file or inserted into the database
+    private Counter ingestedRows(String symbol, String stage) {
+        return Counter.builder("crypto.ingest.rows")
+                .description("Price rows processed by data loads")
+                .tag("symbol", symbol)
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    // Hands each parsed row to the JDBC batch, and each committed one to the in-memory series, tracking the
+    // time range committed
+    private static final class IngestSink implements PriceVisitor {
+        private final CryptoPriceJdbcRepository.Batch batch;
+        private final PriceSeries series;
+        private long rows;
+        private long committedRows;
+        private long from = Long.MAX_VALUE;
+        private long to = Long.MIN_VALUE;
+
+        IngestSink(CryptoPriceJdbcRepository.Batch batch, PriceSeries series) {
+            this.batch = batch;
+            this.series = series;
+        }
+
+        @Override
+        public void visit(long timestampMillis, double price) {
+            batch.add(timestampMillis, price);
+            rows++;
+        }
+
+        void committed(long timestampMillis, double price) {
+            series.put(timestampMillis, price);
+            committedRows++;
+            from = Math.min(from, timestampMillis);
+            to = Math.max(to, timestampMillis);
+        }
     }
 }
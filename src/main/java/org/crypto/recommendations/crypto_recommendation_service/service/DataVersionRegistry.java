@@ -0,0 +1,56 @@
+package org.crypto.recommendations.crypto_recommendation_service.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts changes to the price data, globally and per symbol, so read responses can be validated with an ETag
+ * and Last-Modified without computing them. Versions restart with the process, so every tag also carries the
+ * start time of this instance.
+ */
+@Component
+public class DataVersionRegistry {
+
+    private final long epochMillis = System.currentTimeMillis();
+    private final Map<String, DataVersion> symbolVersions = new ConcurrentHashMap<>();
+    private volatile DataVersion globalVersion = new DataVersion(0, epochMillis);
+
+    public DataVersion global() {
+        return globalVersion;
+    }
+
+    public DataVersion forSymbol(String symbol) {
+        return symbolVersions.getOrDefault(symbol, new DataVersion(0, epochMillis));
+    }
+
+    // Strong entity tag for a version, e.g. "lq3x9c2k-42"
+    public String etag(DataVersion version) {
+        return "\"" + Long.toString(epochMillis, 36) + "-" + version.getVersion() + "\"";
+    }
+
+    // Ordered after PriceCacheInvalidator: a new tag must never be handed out with a body from the old data
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPriceDataChanged(PriceDataChangedEvent event) {
+        long now = Math.max(System.currentTimeMillis(), globalVersion.getLastModifiedMillis());
+        symbolVersions.compute(event.getSymbol(), (symbol, current) ->
+                new DataVersion(current == null ? 1 : current.getVersion() + 1, now));
+        globalVersion = new DataVersion(globalVersion.getVersion() + 1, now);
+    }
+
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static class DataVersion {
+
+        private final long version;
+        private final long lastModifiedMillis;
+    }
+}
@@ -0,0 +1,65 @@
+package org.crypto.recommendations.crypto_recommendation_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.crypto.recommendations.crypto_recommendation_service.config.CacheConfig;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Evicts the cached read results that depend on prices which just changed: the statistics of the symbol,
+ * every ranking, and the highest-range answers of the days the new prices fall on.
+ */
+@Slf4j
+@Component
+public class PriceCacheInvalidator {
+
+    // Beyond this many days, clearing the whole cache is cheaper than evicting day by day
+    static final int MAX_DAYS_EVICTED_INDIVIDUALLY = 1000;
+
+    private final CacheManager cacheManager;
+
+    public PriceCacheInvalidator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    // Runs after the load commits, so a concurrent read cannot re-cache the pre-load answer, and before
+    // DataVersionRegistry hands out the new version
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPriceDataChanged(PriceDataChangedEvent event) {
+        Cache statistics = cacheManager.getCache(CacheConfig.STATISTICS_CACHE);
+        if (statistics != null) {
+            statistics.evict(event.getSymbol());
+        }
+
+        Cache rankings = cacheManager.getCache(CacheConfig.RANKINGS_CACHE);
+        if (rankings != null) {
+            rankings.clear();
+        }
+
+        Cache highestRange = cacheManager.getCache(CacheConfig.HIGHEST_RANGE_CACHE);
+        if (highestRange != null) {
+            LocalDate first = toDate(event.getFromMillis());
+            LocalDate last = toDate(event.getToMillis());
+            if (first.plusDays(MAX_DAYS_EVICTED_INDIVIDUALLY).isBefore(last)) {
+                highestRange.clear();
+            } else {
+                for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+                    highestRange.evict(day.toString());
+                }
+            }
+        }
+        log.debug("Invalidated cached results for {}", event);
+    }
+
+    private static LocalDate toDate(long epochMillis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+}
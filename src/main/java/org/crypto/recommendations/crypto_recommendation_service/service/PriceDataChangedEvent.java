@@ -0,0 +1,19 @@
+package org.crypto.recommendations.crypto_recommendation_service.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published after prices of a symbol were written, covering the epoch milliseconds of the oldest and newest
+ * tick written (both inclusive).
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class PriceDataChangedEvent {
+
+    private final String symbol;
+    private final long fromMillis;
+    private final long toMillis;
+}
@@ -0,0 +1,90 @@
+package org.crypto.recommendations.crypto_recommendation_service.service;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import lombok.extern.slf4j.Slf4j;
+import org.crypto.recommendations.crypto_recommendation_service.model.ExportFormat;
+import org.crypto.recommendations.crypto_recommendation_service.repository.CryptoPriceJdbcRepository;
+import org.crypto.recommendations.crypto_recommendation_service.repository.CryptoPriceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Writes a symbol's stored prices straight from a database cursor to an output stream, so exports of any
+ * size run in constant memory.
+ */
+@Slf4j
+@Service
+public class PriceExportService {
+
+    private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+
+    private final CryptoPriceRepository cryptoPriceRepository;
+    private final CryptoPriceJdbcRepository cryptoPriceJdbcRepository;
+
+    @Autowired
+    public PriceExportService(CryptoPriceRepository cryptoPriceRepository, CryptoPriceJdbcRepository cryptoPriceJdbcRepository) {
+        this.cryptoPriceRepository = cryptoPriceRepository;
+        this.cryptoPriceJdbcRepository = cryptoPriceJdbcRepository;
+    }
+
+    public boolean hasPrices(String symbol) {
+        return cryptoPriceRepository.existsBySymbol(symbol);
+    }
+
+    /**
+     * Writes the prices with {@code from <= timestamp < to} (either bound may be null) in timestamp order.
+     * The read-only transaction lets PostgreSQL serve the rows from a cursor.
+     *
+     * @return the number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long export(String symbol, Instant from, Instant to, ExportFormat format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), WRITE_BUFFER_CHARS);
+        String quotedSymbol = new String(JsonStringEncoder.getInstance().quoteAsString(symbol));
+        if (format == ExportFormat.CSV) {
+            writer.write("timestamp,symbol,price\n");
+        }
+
+        long rows;
+        try {
+            rows = cryptoPriceJdbcRepository.streamPrices(symbol, from, to, (timestamp, price) -> {
+                try {
+                    if (format == ExportFormat.CSV) {
+                        writer.write(Long.toString(timestamp));
+                        writer.write(',');
+                        writer.write(symbol);
+                        writer.write(',');
+                        writer.write(Double.toString(price));
+                    } else {
+                        writer.write("{\"symbol\":\"");
+                        writer.write(quotedSymbol);
+                        writer.write("\",\"price\":");
+                        writer.write(Double.toString(price));
+                        writer.write(",\"timestamp\":\"");
+                        writer.write(Instant.ofEpochMilli(timestamp).toString());
+                        writer.write("\"}");
+                    }
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Typically the client went away; the cursor is closed by the template
+            throw e.getCause();
+        }
+        writer.flush();
+        log.info("Exported {} {} rows as {}", rows, symbol, format);
+        return rows;
+    }
+}
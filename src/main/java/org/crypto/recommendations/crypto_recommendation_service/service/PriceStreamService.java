@@ -0,0 +1,406 @@
+package org.crypto.recommendations.crypto_recommendation_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.crypto.recommendations.crypto_recommendation_service.config.CryptoConfig;
+import org.crypto.recommendations.crypto_recommendation_service.model.LatestPrice;
+import org.crypto.recommendations.crypto_recommendation_service.model.NormalizedRange;
+import org.crypto.recommendations.crypto_recommendation_service.model.SymbolStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes price updates to Server-Sent Events subscribers: the latest tick ({@code tick}) and statistics
+ * ({@code stats}) of each symbol that changed, and the normalized range ranking ({@code rankings}) when its
+ * order or values changed.
+ *
+ * <p>Changes are coalesced twice. Ingest only marks symbols as changed, and every
+ * {@code crypto.stream.interval-ms} one snapshot per changed symbol is computed and shared by all
+ * subscribers. Each subscriber then keeps at most one pending event per kind and symbol; a newer one
+ * replaces an unsent older one. A client that reads slowly therefore skips intermediate states instead of
+ * backing up the server, and its queue never grows beyond the number of symbols.
+ *
+ * <p>Sending an event blocks while the client is not reading. A subscriber whose send has been blocked for
+ * longer than {@code crypto.stream.send-timeout-ms} is dropped: it gets no further events, and its stream is
+ * completed as soon as the blocked send returns. A delivery that finds every thread busy is retried on the
+ * next publish instead of waiting, so stalled clients delay nobody else.
+ */
+@Slf4j
+@Service
+public class PriceStreamService implements SmartLifecycle {
+
+    static final String TICK_EVENT = "tick";
+    static final String STATS_EVENT = "stats";
+    static final String RANKINGS_EVENT = "rankings";
+
+    private final CryptoConfig cryptoConfig;
+    private final CryptoService cryptoService;
+    private final Executor executor;
+    private final long intervalMillis;
+    private final long heartbeatMillis;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final int maxSubscribers;
+    private final Counter dropped;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Streams holding one of the crypto.stream.max-subscribers slots, reserved before a stream is opened
+    private final AtomicInteger openStreams = new AtomicInteger();
+    private final Set<String> changedSymbols = ConcurrentHashMap.newKeySet();
+    // Subscribers whose delivery found no free thread
+    private final Set<Subscriber> deferred = ConcurrentHashMap.newKeySet();
+    // Last snapshots published, only touched by the publisher thread
+    private final Map<String, LatestPrice> lastTicks = new HashMap<>();
+    private final Map<String, SymbolStatistics> lastStatistics = new HashMap<>();
+    private List<NormalizedRange> lastRankings = List.of();
+    private long lastHeartbeat;
+
+    private volatile ScheduledExecutorService scheduler;
+
+    @Autowired
+    public PriceStreamService(CryptoConfig cryptoConfig, CryptoService cryptoService,
+                              @Qualifier("cryptoStreamExecutor") Executor executor, MeterRegistry meterRegistry,
+                              @Value("${crypto.stream.interval-ms:250}") long intervalMillis,
+                              @Value("${crypto.stream.heartbeat-ms:15000}") long heartbeatMillis,
+                              @Value("${crypto.stream.timeout-ms:1800000}") long timeoutMillis,
+                              @Value("${crypto.stream.send-timeout-ms:10000}") long sendTimeoutMillis,
+                              @Value("${crypto.stream.max-subscribers:10000}") int maxSubscribers) {
+        this.cryptoConfig = cryptoConfig;
+        this.cryptoService = cryptoService;
+        this.executor = executor;
+        this.intervalMillis = intervalMillis;
+        this.heartbeatMillis = heartbeatMillis;
+        this.timeoutMillis = timeoutMillis;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        this.maxSubscribers = maxSubscribers;
+
+        Gauge.builder("crypto.stream.subscribers", subscribers, Set::size)
+                .description("Open price stream connections")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("crypto.stream.dropped")
+                .description("Price streams dropped because the client stopped reading")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream for the given symbols, or for every symbol if none are given. The current tick and
+     * statistics of each symbol and the current ranking are sent first.
+     *
+     * @throws IllegalArgumentException if a symbol is not configured
+     * @throws IllegalStateException    if {@code crypto.stream.max-subscribers} streams are already open
+     */
+    public SseEmitter subscribe(Collection<String> symbols) {
+        Set<String> filter = symbols == null || symbols.isEmpty() ? null : Set.copyOf(symbols);
+        if (filter != null) {
+            for (String symbol : filter) {
+                if (!cryptoConfig.getSymbols().containsKey(symbol)) {
+                    throw new IllegalArgumentException("Invalid cryptocurrency symbol: " + symbol);
+                }
+            }
+        }
+        if (openStreams.incrementAndGet() > maxSubscribers) {
+            openStreams.decrementAndGet();
+            throw new IllegalStateException("Too many price stream subscribers");
+        }
+
+        SseEmitter emitter = newEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, filter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscriber.close());
+
+        // Registered before the snapshot is taken, so a change published meanwhile is not missed; the snapshot
+        // then only fills in what the publisher has not already queued
+        subscribers.add(subscriber);
+        try {
+            for (LatestPrice latest : cryptoService.getLatestPrices()) {
+                if (subscriber.wants(latest.getSymbol())) {
+                    subscriber.offerIfAbsent(TICK_EVENT, latest.getSymbol(), latest);
+                    subscriber.offerIfAbsent(STATS_EVENT, latest.getSymbol(), statisticsOf(latest.getSymbol()));
+                }
+            }
+            subscriber.offerIfAbsent(RANKINGS_EVENT, null, cryptoService.getNormalizedRanges(0, null));
+        } catch (RuntimeException e) {
+            subscriber.close();
+            throw e;
+        }
+        subscriber.schedule();
+        return emitter;
+    }
+
+    // Ordered after the cache eviction, so the snapshot taken for this change is not a stale cached answer
+    @Order(2)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPriceDataChanged(PriceDataChangedEvent event) {
+        if (!subscribers.isEmpty()) {
+            changedSymbols.add(event.getSymbol());
+        }
+    }
+
+    void publish() {
+        dropStalled();
+        for (Subscriber subscriber : deferred) {
+            deferred.remove(subscriber);
+            subscriber.schedule();
+        }
+
+        List<String> changed = new ArrayList<>();
+        for (String symbol : changedSymbols) {
+            changedSymbols.remove(symbol);
+            changed.add(symbol);
+        }
+
+        if (!changed.isEmpty()) {
+            // A change can be announced more than once, e.g. on accept and again once written
+            Map<String, LatestPrice> ticks = new LinkedHashMap<>();
+            Map<String, SymbolStatistics> statistics = new LinkedHashMap<>();
+            for (String symbol : changed) {
+                cryptoService.getLatestPrice(symbol)
+                        .filter(latest -> !latest.equals(lastTicks.put(symbol, latest)))
+                        .ifPresent(latest -> ticks.put(symbol, latest));
+                SymbolStatistics symbolStatistics = statisticsOf(symbol);
+                if (!symbolStatistics.equals(lastStatistics.put(symbol, symbolStatistics))) {
+                    statistics.put(symbol, symbolStatistics);
+                }
+            }
+            List<NormalizedRange> rankings = cryptoService.getNormalizedRanges(0, null);
+            boolean rankingsChanged = !rankings.equals(lastRankings);
+            lastRankings = rankings;
+
+            for (Subscriber subscriber : subscribers) {
+                boolean offered = false;
+                for (String symbol : changed) {
+                    if (!subscriber.wants(symbol)) {
+                        continue;
+                    }
+                    if (ticks.containsKey(symbol)) {
+                        subscriber.offer(TICK_EVENT, symbol, ticks.get(symbol));
+                        offered = true;
+                    }
+                    if (statistics.containsKey(symbol)) {
+                        subscriber.offer(STATS_EVENT, symbol, statistics.get(symbol));
+                        offered = true;
+                    }
+                }
+                if (rankingsChanged) {
+                    subscriber.offer(RANKINGS_EVENT, null, rankings);
+                    offered = true;
+                }
+                if (offered) {
+                    subscriber.schedule();
+                }
+            }
+        }
+
+        // Lets proxies keep idle connections open and surfaces clients that went away
+        long now = System.currentTimeMillis();
+        if (now - lastHeartbeat >= heartbeatMillis) {
+            lastHeartbeat = now;
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(null, null, null);
+                subscriber.schedule();
+            }
+        }
+    }
+
+    // Drops subscribers whose client has not taken an event for longer than the send timeout
+    private void dropStalled() {
+        long now = nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.sendStartedNanos;
+            if (started != Subscriber.IDLE && now - started > sendTimeoutNanos) {
+                subscriber.drop();
+            }
+        }
+    }
+
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    long nanoTime() {
+        return System.nanoTime();
+    }
+
+    private SymbolStatistics statisticsOf(String symbol) {
+        return new SymbolStatistics(symbol, cryptoService.getCryptoStatistics(symbol));
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "crypto-stream-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                publish();
+            } catch (RuntimeException e) {
+                log.error("Failed to publish price stream updates", e);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        scheduler.shutdownNow();
+        scheduler = null;
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+            subscriber.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    // Built into an SSE event only when sent, as event builders cannot be reused across emitters
+    private static final class PendingEvent {
+        private final String name;
+        private final Object data;
+
+        PendingEvent(String name, Object data) {
+            this.name = name;
+            this.data = data;
+        }
+    }
+
+    // One stream; a heartbeat is an event without a name
+    private final class Subscriber {
+        private static final long IDLE = Long.MIN_VALUE;
+
+        private final SseEmitter emitter;
+        private final Set<String> symbols;
+        // Event name and symbol -> latest unsent event, in first-offered order
+        private final Map<String, PendingEvent> pending = new LinkedHashMap<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // When the send in progress started, or IDLE
+        private volatile long sendStartedNanos = IDLE;
+        private volatile boolean dropped;
+
+        Subscriber(SseEmitter emitter, Set<String> symbols) {
+            this.emitter = emitter;
+            this.symbols = symbols;
+        }
+
+        boolean wants(String symbol) {
+            return symbols == null || symbols.contains(symbol);
+        }
+
+        void offer(String name, String symbol, Object data) {
+            synchronized (pending) {
+                pending.put(name + ":" + symbol, new PendingEvent(name, data));
+            }
+        }
+
+        void offerIfAbsent(String name, String symbol, Object data) {
+            synchronized (pending) {
+                pending.putIfAbsent(name + ":" + symbol, new PendingEvent(name, data));
+            }
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::deliver);
+                } catch (RejectedExecutionException e) {
+                    // Every delivery thread is busy; the next publish retries
+                    scheduled.set(false);
+                    deferred.add(this);
+                }
+            }
+        }
+
+        // Unregisters the stream and frees its slot; completion, errors and drops may each call this
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscribers.remove(this);
+                openStreams.decrementAndGet();
+            }
+        }
+
+        // The emitter cannot be completed while a send holds it, so that is left to the delivering thread
+        void drop() {
+            dropped = true;
+            close();
+            deferred.remove(this);
+            synchronized (pending) {
+                pending.clear();
+            }
+            PriceStreamService.this.dropped.increment();
+            log.info("Dropped a price stream whose client stopped reading");
+        }
+
+        private void deliver() {
+            boolean idle = false;
+            try {
+                while (true) {
+                    List<PendingEvent> events;
+                    synchronized (pending) {
+                        if (pending.isEmpty()) {
+                            // Cleared under the lock, so an offer made after this is followed by a new schedule()
+                            scheduled.set(false);
+                            idle = true;
+                            return;
+                        }
+                        events = new ArrayList<>(pending.values());
+                        pending.clear();
+                    }
+                    for (PendingEvent event : events) {
+                        sendStartedNanos = nanoTime();
+                        try {
+                            if (event.name == null) {
+                                emitter.send(SseEmitter.event().comment("heartbeat"));
+                            } else {
+                                emitter.send(SseEmitter.event().name(event.name).data(event.data));
+                            }
+                        } finally {
+                            sendStartedNanos = IDLE;
+                        }
+                        if (dropped) {
+                            emitter.complete();
+                            return;
+                        }
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the stream already completed
+                close();
+            } finally {
+                // Whatever ended the delivery, a later schedule() must be able to start a new one
+                if (!idle) {
+                    scheduled.set(false);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.crypto.recommendations.crypto_recommendation_service.service;
+
+import org.crypto.recommendations.crypto_recommendation_service.model.PriceRollup;
+import org.crypto.recommendations.crypto_recommendation_service.model.RollupGranularity;
+import org.crypto.recommendations.crypto_recommendation_service.repository.PriceRollupJdbcRepository;
+import org.crypto.recommendations.crypto_recommendation_service.repository.PriceRollupRepository;
+import org.crypto.recommendations.crypto_recommendation_service.store.PriceSeries;
+import org.crypto.recommendations.crypto_recommendation_service.store.PriceStore;
+import org.crypto.recommendations.crypto_recommendation_service.store.PriceVisitor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains the persisted OHLC rollups in {@code CRYPTO_PRICE_ROLLUPS} so range queries over days or weeks
+ * read one row per bucket instead of every raw tick.
+ */
+@Service
+public class RollupService {
+
+    private final PriceRollupRepository priceRollupRepository;
+    private final PriceRollupJdbcRepository priceRollupJdbcRepository;
+    private final PriceStore priceStore;
+
+    @Autowired
+    public RollupService(PriceRollupRepository priceRollupRepository, PriceRollupJdbcRepository priceRollupJdbcRepository,
+                         PriceStore priceStore) {
+        this.priceRollupRepository = priceRollupRepository;
+        this.priceRollupJdbcRepository = priceRollupJdbcRepository;
+        this.priceStore = priceStore;
+    }
+
+    /**
+     * Recomputes every bucket of every granularity that overlaps {@code [fromMillis, toMillis]} from the
+     * in-memory series, and upserts the result in JDBC batches. Rebuilding whole buckets keeps rollups exact
+     * when ticks are replaced or arrive out of order, and makes concurrent refreshes of a symbol safe: each
+     * writes complete bars, and the last one to commit wins.
+     */
+    @Transactional
+    public void refresh(String symbol, long fromMillis, long toMillis) {
+        PriceSeries series = priceStore.find(symbol);
+        if (series == null || series.isEmpty()) {
+            return;
+        }
+
+        List<PriceRollup> bars = new ArrayList<>();
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            long firstBucket = granularity.bucketStart(fromMillis);
+            long lastBucket = granularity.bucketStart(toMillis);
+
+            BarCollector collector = new BarCollector(symbol, granularity);
+            series.scan(firstBucket, granularity.bucketEnd(lastBucket), collector);
+            bars.addAll(collector.finish());
+        }
+        priceRollupJdbcRepository.upsertAll(bars);
+    }
+
+    public List<PriceRollup> findRollups(RollupGranularity granularity, Instant bucketStart) {
+        return priceRollupRepository.findByGranularityAndBucketStart(granularity, bucketStart);
+    }
+
+    // Bars whose bucket starts within [start, end], oldest first
+    public List<PriceRollup> findRollups(String symbol, RollupGranularity granularity, Instant start, Instant end) {
+        return priceRollupRepository.findBySymbolAndGranularityAndBucketStartBetween(symbol, granularity, start, end,
+                Sort.by(Sort.Direction.ASC, "bucketStart"));
+    }
+
+    // Folds a timestamp-ordered scan into one bar per bucket
+    private static final class BarCollector implements PriceVisitor {
+        private final String symbol;
+        private final RollupGranularity granularity;
+        private final List<PriceRollup> bars = new ArrayList<>();
+
+        private long bucket = Long.MIN_VALUE;
+        private double open;
+        private double high;
+        private double low;
+        private double close;
+        private long count;
+
+        BarCollector(String symbol, RollupGranularity granularity) {
+            this.symbol = symbol;
+            this.granularity = granularity;
+        }
+
+        @Override
+        public void visit(long timestampMillis, double price) {
+            long start = granularity.bucketStart(timestampMillis);
+            if (start != bucket) {
+                emit();
+                bucket = start;
+                open = price;
+                high = price;
+                low = price;
+                count = 0;
+            }
+            high = Math.max(high, price);
+            low = Math.min(low, price);
+            close = price;
+            count++;
+        }
+
+        List<PriceRollup> finish() {
+            emit();
+            return bars;
+        }
+
+        private void emit() {
+            if (count > 0) {
+                bars.add(new PriceRollup(symbol, granularity, Instant.ofEpochMilli(bucket), open, high, low, close, count));
+                count = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.crypto.recommendations.crypto_recommendation_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.crypto.recommendations.crypto_recommendation_service.model.LoadStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Loads every symbol before the application reports itself ready, when {@code crypto.load.on-startup=true}.
+ * Runners complete before Spring Boot publishes the ready event, so a fresh pod only accepts traffic once
+ * its data is in place.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "crypto.load.on-startup", havingValue = "true")
+public class StartupLoadRunner implements ApplicationRunner {
+
+    private final BulkLoadService bulkLoadService;
+
+    @Autowired
+    public StartupLoadRunner(BulkLoadService bulkLoadService) {
+        this.bulkLoadService = bulkLoadService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Map<String, LoadStatus> result = bulkLoadService.loadAll();
+        long failed = result.values().stream().filter(status -> status.getState() == LoadStatus.State.FAILED).count();
+        log.info("Startup load finished: {} symbols loaded, {} failed", result.size() - failed, failed);
+    }
+}
@@ -0,0 +1,11 @@
+package org.crypto.recommendations.crypto_recommendation_service.service;
+
+/**
+ * Thrown when posted ticks do not fit in the write-behind buffer because the database writer is behind.
+ */
+public class TickBufferFullException extends RuntimeException {
+
+    public TickBufferFullException(int ticks, int buffered, int capacity) {
+        super("Tick buffer full: cannot accept " + ticks + " ticks with " + buffered + " of " + capacity + " buffered");
+    }
+}
@@ -0,0 +1,322 @@
+package org.crypto.recommendations.crypto_recommendation_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.crypto.recommendations.crypto_recommendation_service.config.CryptoConfig;
+import org.crypto.recommendations.crypto_recommendation_service.model.PriceTick;
+import org.crypto.recommendations.crypto_recommendation_service.repository.CryptoPriceJdbcRepository;
+import org.crypto.recommendations.crypto_recommendation_service.store.PriceSeries;
+import org.crypto.recommendations.crypto_recommendation_service.store.TickBuffer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts live ticks into a bounded {@link TickBuffer} and writes them to the database behind the caller's
+ * back. A background writer drains the buffer in batches, coalesces repeated ticks of the same symbol and
+ * timestamp and upserts them. Only once a symbol's batch has committed do its ticks go into the in-memory
+ * store, its rollups get refreshed and the affected cache entries get evicted, so reads never serve a tick
+ * the database does not hold: a posted tick becomes visible within about {@code crypto.ticks.flush-interval-ms},
+ * and one that is never written is never served.
+ *
+ * <p>When the writer falls behind, the buffer fills up and posts are rejected with
+ * {@link TickBufferFullException} instead of queueing without bound. A failed write is retried with the
+ * same batch up to {@code crypto.ticks.max-write-attempts} times, backing off a little more each time. A batch
+ * that still fails is written one tick at a time and the ticks the database rejects are logged and dropped,
+ * so one bad tick cannot stall the writer; an outage longer than the retries drops the batch the same way.
+ */
+@Slf4j
+@Service
+public class TickIngestService implements SmartLifecycle {
+
+    // Timestamps every supported database can store
+    static final Instant MIN_TIMESTAMP = Instant.EPOCH;
+    static final Instant MAX_TIMESTAMP = Instant.parse("9999-12-31T23:59:59.999Z");
+
+    private final CryptoConfig cryptoConfig;
+    private final CryptoService cryptoService;
+    private final CryptoPriceJdbcRepository cryptoPriceJdbcRepository;
+    private final RollupService rollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    private final ObjectReader tickReader;
+    private final TickBuffer buffer;
+    private final int flushSize;
+    private final long flushIntervalMillis;
+    private final int maxTicksPerRequest;
+    private final int maxWriteAttempts;
+    private final Counter droppedTicks;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public TickIngestService(CryptoConfig cryptoConfig, CryptoService cryptoService,
+                             CryptoPriceJdbcRepository cryptoPriceJdbcRepository, RollupService rollupService,
+                             ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry, ObjectMapper objectMapper,
+                             @Value("${crypto.ticks.buffer-capacity:100000}") int bufferCapacity,
+                             @Value("${crypto.ticks.flush-size:5000}") int flushSize,
+                             @Value("${crypto.ticks.flush-interval-ms:200}") long flushIntervalMillis,
+                             @Value("${crypto.ticks.max-per-request:50000}") int maxTicksPerRequest,
+                             @Value("${crypto.ticks.max-write-attempts:5}") int maxWriteAttempts) {
+        if (flushSize <= 0 || flushSize > bufferCapacity) {
+            throw new IllegalArgumentException("crypto.ticks.flush-size must be between 1 and the buffer capacity: " + flushSize);
+        }
+        if (maxTicksPerRequest <= 0 || maxTicksPerRequest > bufferCapacity) {
+            throw new IllegalArgumentException("crypto.ticks.max-per-request must be between 1 and the buffer capacity: " + maxTicksPerRequest);
+        }
+        if (maxWriteAttempts <= 0) {
+            throw new IllegalArgumentException("crypto.ticks.max-write-attempts must be positive: " + maxWriteAttempts);
+        }
+        this.cryptoConfig = cryptoConfig;
+        this.cryptoService = cryptoService;
+        this.cryptoPriceJdbcRepository = cryptoPriceJdbcRepository;
+        this.rollupService = rollupService;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.tickReader = objectMapper.readerFor(PriceTick.class);
+        this.buffer = new TickBuffer(bufferCapacity);
+        this.flushSize = flushSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxTicksPerRequest = maxTicksPerRequest;
+        this.maxWriteAttempts = maxWriteAttempts;
+
+        Gauge.builder("crypto.ticks.buffered", buffer, TickBuffer::size)
+                .description("Ticks accepted but not yet written to the database")
+                .register(meterRegistry);
+        this.droppedTicks = Counter.builder("crypto.ticks.dropped")
+                .description("Accepted ticks dropped because the database rejected them or was unavailable")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reads ticks from a JSON array or from newline-delimited JSON objects and accepts all of them, or none
+     * if any is invalid or they do not fit in the buffer.
+     *
+     * @return the number of ticks accepted
+     * @throws IllegalArgumentException if the body is malformed, a tick is incomplete, has an unknown symbol or
+     *                                  a timestamp outside 1970-9999, or the body holds more than
+     *                                  {@code crypto.ticks.max-per-request} ticks
+     * @throws TickBufferFullException  if the ticks do not fit in the buffer
+     */
+    public int accept(InputStream body) throws IOException {
+        List<PriceTick> ticks = new ArrayList<>();
+        int[] symbolIds = new int[64];
+        try (MappingIterator<PriceTick> iterator = tickReader.readValues(body)) {
+            while (iterator.hasNextValue()) {
+                PriceTick tick = iterator.nextValue();
+                int symbolId = validate(tick, ticks.size());
+                if (ticks.size() == maxTicksPerRequest) {
+                    throw new IllegalArgumentException("At most " + maxTicksPerRequest + " ticks may be posted at once.");
+                }
+                if (ticks.size() == symbolIds.length) {
+                    symbolIds = Arrays.copyOf(symbolIds, symbolIds.length * 2);
+                }
+                symbolIds[ticks.size()] = symbolId;
+                ticks.add(tick);
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed tick: " + e.getOriginalMessage());
+        }
+        return accept(ticks, symbolIds);
+    }
+
+    // symbolIds[i] is the registry id of the i-th tick's symbol
+    int accept(List<PriceTick> ticks, int[] symbolIds) {
+        if (ticks.isEmpty()) {
+            return 0;
+        }
+
+        if (!buffer.offerAll(ticks, symbolIds)) {
+            Counter.builder("crypto.ticks.rejected")
+                    .description("Ticks rejected because the buffer was full")
+                    .register(meterRegistry)
+                    .increment(ticks.size());
+            throw new TickBufferFullException(ticks.size(), buffer.size(), buffer.capacity());
+        }
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (PriceTick tick : ticks) {
+            counts.merge(tick.getSymbol(), 1, Integer::sum);
+        }
+        counts.forEach((symbol, count) -> Counter.builder("crypto.ticks.accepted")
+                .description("Ticks accepted into the buffer")
+                .tag("symbol", symbol)
+                .register(meterRegistry)
+                .increment(count));
+        return ticks.size();
+    }
+
+    // Returns the id of the tick's symbol
+    private int validate(PriceTick tick, int index) {
+        if (tick == null || tick.getSymbol() == null || tick.getPrice() == null || tick.getTimestamp() == null) {
+            throw new IllegalArgumentException("Tick " + index + " must have a symbol, price and timestamp.");
+        }
+        int symbolId = cryptoConfig.idOf(tick.getSymbol());
+        if (symbolId < 0) {
+            throw new IllegalArgumentException("Invalid cryptocurrency symbol: " + tick.getSymbol());
+        }
+        if (!Double.isFinite(tick.getPrice())) {
+            throw new IllegalArgumentException("Tick " + index + " has a non-finite price.");
+        }
+        if (tick.getTimestamp().isBefore(MIN_TIMESTAMP) || tick.getTimestamp().isAfter(MAX_TIMESTAMP)) {
+            throw new IllegalArgumentException("Tick " + index + " has a timestamp outside " + MIN_TIMESTAMP + " to " + MAX_TIMESTAMP + ".");
+        }
+        return symbolId;
+    }
+
+    private void writeBehind() {
+        int[] symbolIds = new int[flushSize];
+        long[] timestamps = new long[flushSize];
+        double[] prices = new double[flushSize];
+        int pending = 0;
+        int attempts = 0;
+
+        while (running || pending > 0 || buffer.size() > 0) {
+            try {
+                if (pending == 0) {
+                    pending = buffer.drainTo(symbolIds, timestamps, prices, flushIntervalMillis, TimeUnit.MILLISECONDS);
+                    if (pending == 0) {
+                        continue;
+                    }
+                }
+                write(symbolIds, timestamps, prices, pending);
+                pending = 0;
+                attempts = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    int dropped = pending + buffer.size();
+                    droppedTicks.increment(dropped);
+                    log.error("Dropping {} ticks that could not be written during shutdown", dropped, e);
+                    return;
+                }
+                if (++attempts < maxWriteAttempts) {
+                    log.warn("Failed to write {} ticks (attempt {} of {}), retrying", pending, attempts, maxWriteAttempts, e);
+                    try {
+                        Thread.sleep(flushIntervalMillis * attempts);
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    continue;
+                }
+                log.error("Failed to write {} ticks {} times, writing them one at a time", pending, attempts, e);
+                writeIndividually(symbolIds, timestamps, prices, pending);
+                pending = 0;
+                attempts = 0;
+            }
+        }
+    }
+
+    // Last resort for a batch that keeps failing: drops only the ticks the database rejects on their own
+    private void writeIndividually(int[] symbolIds, long[] timestamps, double[] prices, int count) {
+        int dropped = 0;
+        for (int i = 0; i < count; i++) {
+            try {
+                write(new int[]{symbolIds[i]}, new long[]{timestamps[i]}, new double[]{prices[i]}, 1);
+            } catch (RuntimeException e) {
+                dropped++;
+                if (dropped == 1) {
+                    log.error("Dropping tick {} {} {} rejected by the database", cryptoConfig.symbolOf(symbolIds[i]),
+                            Instant.ofEpochMilli(timestamps[i]), prices[i], e);
+                } else {
+                    log.debug("Dropping tick {} {} {} rejected by the database", cryptoConfig.symbolOf(symbolIds[i]),
+                            Instant.ofEpochMilli(timestamps[i]), prices[i], e);
+                }
+            }
+        }
+        if (dropped > 0) {
+            droppedTicks.increment(dropped);
+            log.error("Dropped {} of {} ticks that could not be written", dropped, count);
+        }
+    }
+
+    // Writes one drained batch, keeping only the last price of each symbol and timestamp, and applies each
+    // symbol's ticks to its in-memory series once they are committed
+    void write(int[] symbolIds, long[] timestamps, double[] prices, int count) {
+        // Indexed by symbol id; ids of buffered ticks are below the registry size, which only grows
+        List<Map<Long, Double>> coalesced = new ArrayList<>(Collections.nCopies(cryptoConfig.size(), null));
+        for (int i = 0; i < count; i++) {
+            Map<Long, Double> ticks = coalesced.get(symbolIds[i]);
+            if (ticks == null) {
+                ticks = new HashMap<>();
+                coalesced.set(symbolIds[i], ticks);
+            }
+            ticks.put(timestamps[i], prices[i]);
+        }
+
+        for (int id = 0; id < coalesced.size(); id++) {
+            Map<Long, Double> ticks = coalesced.get(id);
+            if (ticks == null) {
+                continue;
+            }
+            String symbol = cryptoConfig.symbolOf(id);
+            long from = Long.MAX_VALUE;
+            long to = Long.MIN_VALUE;
+            PriceSeries series = cryptoService.seriesForIngest(symbol);
+            try (CryptoPriceJdbcRepository.Batch batch = cryptoPriceJdbcRepository.openBatch(symbol)) {
+                batch.onCommit(series::put);
+                for (Map.Entry<Long, Double> tick : ticks.entrySet()) {
+                    batch.add(tick.getKey(), tick.getValue());
+                    from = Math.min(from, tick.getKey());
+                    to = Math.max(to, tick.getKey());
+                }
+            }
+            rollupService.refresh(symbol, from, to);
+            eventPublisher.publishEvent(new PriceDataChangedEvent(symbol, from, to));
+            Counter.builder("crypto.ingest.rows")
+                    .description("Price rows processed by data loads")
+                    .tag("symbol", symbol)
+                    .tag("stage", "inserted")
+                    .register(meterRegistry)
+                    .increment(ticks.size());
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeBehind, "tick-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Lets the writer drain what is buffered before the datasource goes away
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,164 @@
+package org.crypto.recommendations.crypto_recommendation_service.store;
+
+import org.crypto.recommendations.crypto_recommendation_service.model.PricePoint;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling of a timestamp-ordered scan whose size is known up front.
+ *
+ * <p>The first and last ticks are kept; the ticks between them are split into {@code threshold - 2} equal
+ * buckets, and from each bucket the tick forming the largest triangle with the previously kept tick and the
+ * average of the next bucket is kept. Only two buckets are buffered at a time, so memory depends on the
+ * bucket size rather than on the length of the scan.
+ */
+public class LttbDownsampler implements PriceVisitor {
+
+    private final long total;
+    private final int buckets;
+    private final List<PricePoint> points;
+
+    // The bucket to pick from once the bucket after it (being filled) is complete and its average known
+    private Bucket current;
+    private Bucket next;
+    private long nextIndex = -1;
+
+    private long index;
+    private long keptTimestamp;
+    private double keptPrice;
+
+    /**
+     * @param total     number of ticks the scan will deliver
+     * @param threshold number of ticks to keep, at least 3
+     */
+    public LttbDownsampler(long total, int threshold) {
+        if (threshold < 3) {
+            throw new IllegalArgumentException("LTTB needs at least 3 points: " + threshold);
+        }
+        this.total = total;
+        this.buckets = total > threshold ? threshold - 2 : 0;
+        this.points = new ArrayList<>((int) Math.min(total, threshold));
+        if (buckets > 0) {
+            int capacity = (int) ((total - 2) / buckets) + 1;
+            this.current = new Bucket(capacity);
+            this.next = new Bucket(capacity);
+        }
+    }
+
+    @Override
+    public void visit(long timestampMillis, double price) {
+        long i = index++;
+        if (i >= total) {
+            // The series grew after it was counted; the extra ticks are left out
+            return;
+        }
+        if (buckets == 0 || i == 0) {
+            // Nothing to reduce, or the first tick, which is always kept
+            keep(timestampMillis, price);
+            return;
+        }
+        if (i == total - 1) {
+            // The last tick closes the final bucket and is itself the "next bucket" of that final bucket
+            if (current.size > 0) {
+                pick(current, next.averageTimestamp(), next.averagePrice());
+            }
+            pick(next, timestampMillis, price);
+            keep(timestampMillis, price);
+            return;
+        }
+
+        long bucket = bucketOf(i);
+        if (bucket != nextIndex && next.size > 0) {
+            if (current.size > 0) {
+                pick(current, next.averageTimestamp(), next.averagePrice());
+            }
+            Bucket filled = next;
+            next = current.clear();
+            current = filled;
+        }
+        nextIndex = bucket;
+        next.add(timestampMillis, price);
+    }
+
+    /**
+     * Returns the kept ticks in timestamp order.
+     */
+    public List<PricePoint> finish() {
+        if (buckets > 0 && index > 0 && index < total) {
+            // The series shrank after it was counted: close what was buffered, ending on the newest tick seen
+            if (current.size > 0 && next.size > 0) {
+                pick(current, next.averageTimestamp(), next.averagePrice());
+            }
+            Bucket last = next.size > 0 ? next : current;
+            if (last.size > 0) {
+                keep(last.timestamps[last.size - 1], last.prices[last.size - 1]);
+            }
+            index = total;
+        }
+        return points;
+    }
+
+    // Bucket b holds ticks i with floor(b * (total - 2) / buckets) <= i - 1 < floor((b + 1) * (total - 2) / buckets)
+    private long bucketOf(long i) {
+        return (i * buckets - 1) / (total - 2);
+    }
+
+    private void pick(Bucket bucket, double nextTimestamp, double nextPrice) {
+        double best = -1;
+        int chosen = 0;
+        for (int k = 0; k < bucket.size; k++) {
+            // Twice the area of the triangle (kept tick, candidate, next average)
+            double area = Math.abs((keptTimestamp - nextTimestamp) * (bucket.prices[k] - keptPrice)
+                    - (keptTimestamp - bucket.timestamps[k]) * (nextPrice - keptPrice));
+            if (area > best) {
+                best = area;
+                chosen = k;
+            }
+        }
+        keep(bucket.timestamps[chosen], bucket.prices[chosen]);
+    }
+
+    private void keep(long timestampMillis, double price) {
+        points.add(new PricePoint(Instant.ofEpochMilli(timestampMillis), price));
+        keptTimestamp = timestampMillis;
+        keptPrice = price;
+    }
+
+    private static final class Bucket {
+        final long[] timestamps;
+        final double[] prices;
+        int size;
+        double timestampSum;
+        double priceSum;
+
+        Bucket(int capacity) {
+            timestamps = new long[capacity];
+            prices = new double[capacity];
+        }
+
+        void add(long timestampMillis, double price) {
+            timestamps[size] = timestampMillis;
+            prices[size] = price;
+            size++;
+            timestampSum += timestampMillis;
+            priceSum += price;
+        }
+
+        double averageTimestamp() {
+            return timestampSum / size;
+        }
+
+        double averagePrice() {
+            return priceSum / size;
+        }
+
+        Bucket clear() {
+            size = 0;
+            timestampSum = 0;
+            priceSum = 0;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.crypto.recommendations.crypto_recommendation_service.store;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Immutable snapshot of the running aggregates a {@link PriceSeries} maintains on every write.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class PriceAggregate {
+
+    private final String symbol;
+    private final long count;
+    private final double sum;
+    private final double min;
+    private final double max;
+    private final long oldestMillis;
+    private final long newestMillis;
+
+    public double mean() {
+        return sum / count;
+    }
+
+    public double normalizedRange() {
+        return (max - min) / min;
+    }
+}
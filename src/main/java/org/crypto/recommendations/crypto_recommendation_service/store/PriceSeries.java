@@ -0,0 +1,507 @@
+package org.crypto.recommendations.crypto_recommendation_service.store;
+
+import lombok.Getter;
+import org.crypto.recommendations.crypto_recommendation_service.model.LatestPrice;
+import org.crypto.recommendations.crypto_recommendation_service.model.WindowedRange;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Columnar, timestamp-ordered price history for a single symbol.
+ * <p>
+ * Ticks live in fixed-size chunks of primitive {@code long[]}/{@code double[]} columns, so reads never
+ * box a value and appends never copy the whole history. A tick is identified by its timestamp: writing
+ * the same timestamp twice replaces the price instead of adding a second row.
+ * <p>
+ * Count, sum, min and max are maintained on every write so {@link #aggregate()} is O(1). Replacing the
+ * current min or max with a less extreme price marks the extremes stale; they are then recomputed once,
+ * on the next read, rather than on every replaced row of a reload.
+ * <p>
+ * The min and max of each sliding window ending at the newest tick are maintained the same way: appended
+ * ticks update them in O(1) amortized, while an out-of-order or replaced tick inside the longest window marks
+ * them stale until the next {@link #windowRange(int)} rebuilds them from the ticks in that window.
+ * <p>
+ * {@link #summarize(long, long)} caches a {@link PriceSummary} per UTC day it covers in full, so a range of
+ * many days only scans the ticks of its partial first and last days. A write drops the summary of its day.
+ */
+public class PriceSeries {
+
+    static final int CHUNK_SIZE = 4096;
+    static final long DAY_MILLIS = 86_400_000L;
+
+    @Getter
+    private final String symbol;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Chunk> chunks = new ArrayList<>();
+    private int size;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private boolean extremesStale;
+
+    private final SlidingWindow[] windows;
+    private final long longestWindowMillis;
+    private boolean windowsStale;
+    // Start of UTC day -> summary of that day's ticks; only filled under the read lock, dropped under the write lock
+    private final ConcurrentMap<Long, PriceSummary> daySummaries = new ConcurrentHashMap<>();
+    // Told about every write, e.g. to re-rank the symbol by windowed range
+    private final Consumer<String> onWrite;
+
+    // Snapshot of the newest tick, built on first read and cleared whenever the newest tick changes
+    private volatile LatestPrice latest;
+
+    public PriceSeries(String symbol) {
+        this(symbol, new long[0], written -> {
+        });
+    }
+
+    public PriceSeries(String symbol, long[] windowMillis, Consumer<String> onWrite) {
+        this.symbol = symbol;
+        this.windows = new SlidingWindow[windowMillis.length];
+        long longest = 0;
+        for (int i = 0; i < windowMillis.length; i++) {
+            windows[i] = new SlidingWindow(windowMillis[i]);
+            longest = Math.max(longest, windowMillis[i]);
+        }
+        this.longestWindowMillis = longest;
+        this.onWrite = onWrite;
+    }
+
+    /**
+     * Inserts a tick, or replaces the price of an existing tick with the same timestamp.
+     *
+     * @return {@code true} if a new tick was added, {@code false} if an existing one was replaced
+     */
+    public boolean put(long timestampMillis, double price) {
+        lock.writeLock().lock();
+        try {
+            if (!daySummaries.isEmpty()) {
+                daySummaries.remove(Math.floorDiv(timestampMillis, DAY_MILLIS) * DAY_MILLIS);
+            }
+            Chunk tail = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+            // Fast path: ticks almost always arrive in timestamp order
+            if (tail == null || timestampMillis > tail.last()) {
+                if (tail == null || tail.size == CHUNK_SIZE) {
+                    tail = new Chunk();
+                    chunks.add(tail);
+                }
+                tail.append(timestampMillis, price);
+                size++;
+                accumulate(price);
+                if (!windowsStale) {
+                    for (SlidingWindow window : windows) {
+                        window.append(timestampMillis, price);
+                    }
+                }
+                latest = null;
+                onWrite.accept(symbol);
+                return true;
+            }
+            if (timestampMillis == tail.last()) {
+                latest = null;
+            }
+            if (timestampMillis > tail.last() - longestWindowMillis) {
+                windowsStale = true;
+            }
+            boolean added = insert(timestampMillis, price);
+            onWrite.accept(symbol);
+            return added;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public long firstTimestamp() {
+        lock.readLock().lock();
+        try {
+            requireData();
+            return chunks.get(0).timestamps[0];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long lastTimestamp() {
+        lock.readLock().lock();
+        try {
+            requireData();
+            return chunks.get(chunks.size() - 1).last();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the newest tick, or {@code null} if the series is empty. Repeated reads between writes return
+     * the same cached instance without taking the lock.
+     */
+    public LatestPrice latest() {
+        LatestPrice cached = latest;
+        if (cached != null) {
+            return cached;
+        }
+        lock.readLock().lock();
+        try {
+            if (size == 0) {
+                return null;
+            }
+            Chunk tail = chunks.get(chunks.size() - 1);
+            // Writers are excluded while we hold the read lock, so the snapshot cannot be stale when published
+            cached = new LatestPrice(symbol, tail.prices[tail.size - 1], Instant.ofEpochMilli(tail.last()));
+            latest = cached;
+            return cached;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public double minPrice() {
+        return requireAggregate().getMin();
+    }
+
+    public double maxPrice() {
+        return requireAggregate().getMax();
+    }
+
+    /**
+     * Returns the running aggregates of this series, or {@code null} if it holds no ticks.
+     */
+    public PriceAggregate aggregate() {
+        lock.readLock().lock();
+        try {
+            if (!extremesStale) {
+                return snapshot();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (extremesStale) {
+                recomputeAggregates();
+            }
+            return snapshot();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the range over the given window (an index into the window lengths this series was created
+     * with) ending at the newest tick, or {@code null} if the series holds no ticks.
+     */
+    public WindowedRange windowRange(int window) {
+        lock.readLock().lock();
+        try {
+            if (!windowsStale) {
+                return windowSnapshot(window);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (windowsStale) {
+                rebuildWindows();
+            }
+            return windowSnapshot(window);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Summarizes the ticks with {@code fromMillis <= timestamp < toMillis}. Whole UTC days in the range are
+     * answered from cached per-day summaries; only the ticks of the partial days at either end are scanned.
+     */
+    public PriceSummary summarize(long fromMillis, long toMillis) {
+        lock.readLock().lock();
+        try {
+            if (size == 0) {
+                return PriceSummary.EMPTY;
+            }
+            // Clamped to the stored ticks, so an open range does not walk days without data
+            long from = Math.max(fromMillis, chunks.get(0).timestamps[0]);
+            long to = Math.min(toMillis, chunks.get(chunks.size() - 1).last() + 1);
+            PriceSummary.Accumulator accumulator = new PriceSummary.Accumulator();
+            if (from >= to) {
+                return accumulator.summary();
+            }
+
+            long firstDay = Math.floorDiv(from + DAY_MILLIS - 1, DAY_MILLIS) * DAY_MILLIS;
+            long lastDay = Math.floorDiv(to, DAY_MILLIS) * DAY_MILLIS;
+            if (firstDay >= lastDay) {
+                scan(from, to, accumulator);
+                return accumulator.summary();
+            }
+            scan(from, firstDay, accumulator);
+            for (long day = firstDay; day < lastDay; day += DAY_MILLIS) {
+                accumulator.add(daySummaries.computeIfAbsent(day, this::summarizeDay));
+            }
+            scan(lastDay, to, accumulator);
+            return accumulator.summary();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of ticks with {@code fromMillis <= timestamp < toMillis}, found by binary search.
+     */
+    public int count(long fromMillis, long toMillis) {
+        lock.readLock().lock();
+        try {
+            if (size == 0 || fromMillis >= toMillis) {
+                return 0;
+            }
+            return rank(toMillis) - rank(fromMillis);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visits every tick in timestamp order.
+     */
+    public void forEach(PriceVisitor visitor) {
+        scan(Long.MIN_VALUE, Long.MAX_VALUE, visitor);
+    }
+
+    /**
+     * Visits ticks with {@code fromMillis <= timestamp < toMillis} in timestamp order.
+     * The visitor runs under the series read lock and must not write back into this series.
+     */
+    public void scan(long fromMillis, long toMillis, PriceVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            if (size == 0 || fromMillis >= toMillis) {
+                return;
+            }
+            int c = Math.max(chunkFor(fromMillis), 0);
+            int i = chunks.get(c).indexOf(fromMillis);
+            if (i < 0) {
+                i = -i - 1;
+            }
+            for (; c < chunks.size(); c++, i = 0) {
+                Chunk chunk = chunks.get(c);
+                long[] timestamps = chunk.timestamps;
+                double[] prices = chunk.prices;
+                for (; i < chunk.size; i++) {
+                    if (timestamps[i] >= toMillis) {
+                        return;
+                    }
+                    if (timestamps[i] >= fromMillis) {
+                        visitor.visit(timestamps[i], prices[i]);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean insert(long timestampMillis, double price) {
+        int c = Math.max(chunkFor(timestampMillis), 0);
+        Chunk chunk = chunks.get(c);
+        int index = chunk.indexOf(timestampMillis);
+        if (index >= 0) {
+            replace(chunk, index, price);
+            return false;
+        }
+        index = -index - 1;
+
+        if (chunk.size == CHUNK_SIZE) {
+            // Split the full chunk in half and insert into whichever half owns the position
+            Chunk upper = chunk.splitUpperHalf();
+            chunks.add(c + 1, upper);
+            if (index > chunk.size) {
+                index -= chunk.size;
+                chunk = upper;
+            }
+        }
+        chunk.insertAt(index, timestampMillis, price);
+        size++;
+        accumulate(price);
+        return true;
+    }
+
+    private void replace(Chunk chunk, int index, double price) {
+        double previous = chunk.prices[index];
+        chunk.prices[index] = price;
+        sum += price - previous;
+
+        boolean wasMin = previous == min;
+        boolean wasMax = previous == max;
+        min = Math.min(min, price);
+        max = Math.max(max, price);
+        if ((wasMin && price > previous) || (wasMax && price < previous)) {
+            extremesStale = true;
+        }
+    }
+
+    private void accumulate(double price) {
+        sum += price;
+        min = Math.min(min, price);
+        max = Math.max(max, price);
+    }
+
+    private void recomputeAggregates() {
+        sum = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+        for (Chunk chunk : chunks) {
+            for (int i = 0; i < chunk.size; i++) {
+                accumulate(chunk.prices[i]);
+            }
+        }
+        extremesStale = false;
+    }
+
+    private PriceSummary summarizeDay(long dayStart) {
+        if (count(dayStart, dayStart + DAY_MILLIS) == 0) {
+            return PriceSummary.EMPTY;
+        }
+        PriceSummary.Accumulator accumulator = new PriceSummary.Accumulator();
+        scan(dayStart, dayStart + DAY_MILLIS, accumulator);
+        return accumulator.summary();
+    }
+
+    private void rebuildWindows() {
+        for (SlidingWindow window : windows) {
+            window.clear();
+        }
+        if (size > 0) {
+            long last = chunks.get(chunks.size() - 1).last();
+            scan(last - longestWindowMillis + 1, Long.MAX_VALUE, (timestampMillis, price) -> {
+                for (SlidingWindow window : windows) {
+                    window.append(timestampMillis, price);
+                }
+            });
+        }
+        windowsStale = false;
+    }
+
+    private WindowedRange windowSnapshot(int index) {
+        SlidingWindow window = windows[index];
+        if (size == 0 || window.isEmpty()) {
+            return null;
+        }
+        long last = chunks.get(chunks.size() - 1).last();
+        double min = window.min();
+        double max = window.max();
+        return new WindowedRange(symbol, (max - min) / min, min, max,
+                Instant.ofEpochMilli(last - window.lengthMillis()), Instant.ofEpochMilli(last));
+    }
+
+    private PriceAggregate snapshot() {
+        if (size == 0) {
+            return null;
+        }
+        return new PriceAggregate(symbol, size, sum, min, max, chunks.get(0).timestamps[0], chunks.get(chunks.size() - 1).last());
+    }
+
+    private PriceAggregate requireAggregate() {
+        PriceAggregate aggregate = aggregate();
+        if (aggregate == null) {
+            throw new IllegalStateException("No prices stored for symbol: " + symbol);
+        }
+        return aggregate;
+    }
+
+    // Number of ticks older than the given timestamp
+    private int rank(long timestampMillis) {
+        int c = chunkFor(timestampMillis);
+        if (c < 0) {
+            return 0;
+        }
+        int before = 0;
+        for (int k = 0; k < c; k++) {
+            before += chunks.get(k).size;
+        }
+        int i = chunks.get(c).indexOf(timestampMillis);
+        return before + (i < 0 ? -i - 1 : i);
+    }
+
+    // Index of the last chunk whose first timestamp is <= the given timestamp, or -1 if none
+    private int chunkFor(long timestampMillis) {
+        int low = 0;
+        int high = chunks.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (chunks.get(mid).timestamps[0] <= timestampMillis) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    private void requireData() {
+        if (size == 0) {
+            throw new IllegalStateException("No prices stored for symbol: " + symbol);
+        }
+    }
+
+    private static final class Chunk {
+        final long[] timestamps = new long[CHUNK_SIZE];
+        final double[] prices = new double[CHUNK_SIZE];
+        int size;
+
+        long last() {
+            return timestamps[size - 1];
+        }
+
+        void append(long timestampMillis, double price) {
+            timestamps[size] = timestampMillis;
+            prices[size] = price;
+            size++;
+        }
+
+        // Same contract as Arrays.binarySearch, restricted to the filled part of the chunk
+        int indexOf(long timestampMillis) {
+            return Arrays.binarySearch(timestamps, 0, size, timestampMillis);
+        }
+
+        void insertAt(int index, long timestampMillis, double price) {
+            System.arraycopy(timestamps, index, timestamps, index + 1, size - index);
+            System.arraycopy(prices, index, prices, index + 1, size - index);
+            timestamps[index] = timestampMillis;
+            prices[index] = price;
+            size++;
+        }
+
+        Chunk splitUpperHalf() {
+            Chunk upper = new Chunk();
+            int half = size / 2;
+            upper.size = size - half;
+            System.arraycopy(timestamps, half, upper.timestamps, 0, upper.size);
+            System.arraycopy(prices, half, upper.prices, 0, upper.size);
+            size = half;
+            return upper;
+        }
+    }
+}
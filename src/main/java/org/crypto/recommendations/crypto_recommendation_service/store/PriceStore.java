@@ -0,0 +1,141 @@
+package org.crypto.recommendations.crypto_recommendation_service.store;
+
+import org.crypto.recommendations.crypto_recommendation_service.model.CryptoPrice;
+import org.crypto.recommendations.crypto_recommendation_service.model.WindowedRange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * In-memory, per-symbol columnar price store that backs the read endpoints.
+ * The database remains the system of record; this store is filled on ingest and hydrated from it on demand.
+ * Every series also tracks its range over the sliding windows in {@code crypto.recommendation.windows}, and
+ * the store ranks symbols by them.
+ */
+@Component
+public class PriceStore {
+
+    static final List<Duration> DEFAULT_WINDOWS = List.of(Duration.ofHours(1), Duration.ofHours(24), Duration.ofDays(7), Duration.ofDays(30));
+
+    private final ConcurrentMap<String, PriceSeries> series = new ConcurrentHashMap<>();
+    // Held while a symbol's series is built from the database, so concurrent hydrations of it wait for the first
+    private final ConcurrentMap<String, Object> hydrationLocks = new ConcurrentHashMap<>();
+    private final List<Duration> windows;
+    private final long[] windowMillis;
+    private final RangeRanking ranking;
+
+    public PriceStore() {
+        this(DEFAULT_WINDOWS);
+    }
+
+    @Autowired
+    public PriceStore(@Value("${crypto.recommendation.windows:1h,24h,7d,30d}") List<Duration> windows) {
+        this.windows = List.copyOf(windows);
+        this.windowMillis = windows.stream().mapToLong(Duration::toMillis).toArray();
+        this.ranking = new RangeRanking(windows.size());
+    }
+
+    public PriceSeries getOrCreate(String symbol) {
+        return series.computeIfAbsent(symbol, key -> new PriceSeries(key, windowMillis, ranking::markChanged));
+    }
+
+    /**
+     * Returns the symbol's series, hydrating it first if the store has none: the loader's rows are put into a
+     * new series that is only published once complete, so no reader sees a partially hydrated series.
+     * Concurrent calls for the same symbol wait for the one hydrating it.
+     *
+     * @return the series, or null if the store has none and the loader returned no rows
+     */
+    public PriceSeries hydrate(String symbol, Function<String, ? extends Collection<CryptoPrice>> loader) {
+        PriceSeries existing = series.get(symbol);
+        if (existing != null) {
+            return existing;
+        }
+        synchronized (hydrationLocks.computeIfAbsent(symbol, key -> new Object())) {
+            existing = series.get(symbol);
+            if (existing != null) {
+                return existing;
+            }
+            Collection<CryptoPrice> prices = loader.apply(symbol);
+            if (prices.isEmpty()) {
+                return null;
+            }
+            PriceSeries hydrated = new PriceSeries(symbol, windowMillis, ranking::markChanged);
+            for (CryptoPrice price : prices) {
+                hydrated.put(price.getTimestamp().toEpochMilli(), price.getPrice());
+            }
+            // A writer may have created the series meanwhile; its rows are newer than the loader's snapshot
+            PriceSeries published = series.putIfAbsent(symbol, hydrated);
+            if (published != null) {
+                return published;
+            }
+            ranking.markChanged(symbol);
+            return hydrated;
+        }
+    }
+
+    // Sliding window lengths, in the order of their indexes in PriceSeries.windowRange
+    public List<Duration> windows() {
+        return windows;
+    }
+
+    /**
+     * Returns at most {@code k} symbols with the highest normalized range over the given window, highest first.
+     *
+     * @throws IllegalArgumentException if the window is not one of {@link #windows()}
+     */
+    public List<WindowedRange> topByWindowedRange(Duration window, int k) {
+        int index = windows.indexOf(window);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unsupported window " + window + "; supported windows are " + windows);
+        }
+        return ranking.top(index, k, series::get);
+    }
+
+    // Returns the series for the symbol, or null if nothing has been stored for it yet
+    public PriceSeries find(String symbol) {
+        return series.get(symbol);
+    }
+
+    public Set<String> symbols() {
+        return Collections.unmodifiableSet(series.keySet());
+    }
+
+    // Running aggregates for the symbol, or null if nothing has been stored for it yet
+    public PriceAggregate aggregate(String symbol) {
+        PriceSeries target = series.get(symbol);
+        return target != null ? target.aggregate() : null;
+    }
+
+    public List<PriceAggregate> aggregates() {
+        List<PriceAggregate> result = new ArrayList<>(series.size());
+        for (PriceSeries target : series.values()) {
+            PriceAggregate aggregate = target.aggregate();
+            if (aggregate != null) {
+                result.add(aggregate);
+            }
+        }
+        return result;
+    }
+
+    public int putAll(String symbol, Collection<CryptoPrice> prices) {
+        PriceSeries target = getOrCreate(symbol);
+        int added = 0;
+        for (CryptoPrice price : prices) {
+            if (target.put(price.getTimestamp().toEpochMilli(), price.getPrice())) {
+                added++;
+            }
+        }
+        return added;
+    }
+}
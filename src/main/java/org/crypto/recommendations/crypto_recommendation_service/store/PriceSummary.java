@@ -0,0 +1,189 @@
+package org.crypto.recommendations.crypto_recommendation_service.store;
+
+import com.tdunning.math.stats.Centroid;
+import com.tdunning.math.stats.MergingDigest;
+import com.tdunning.math.stats.TDigest;
+import lombok.Getter;
+
+import java.util.Collection;
+
+/**
+ * Immutable, mergeable summary of a run of consecutive ticks: count, min, max, mean and variance of the
+ * prices (Welford), the same moments of the log returns between consecutive ticks, and a t-digest of the
+ * prices for approximate quantiles.
+ * <p>
+ * Summaries of adjacent time ranges are combined by an {@link Accumulator} without revisiting their ticks,
+ * which is how {@link PriceSeries#summarize(long, long)} answers long ranges from cached per-day summaries.
+ */
+@Getter
+public final class PriceSummary {
+
+    // t-digest accuracy: larger keeps more centroids and gives tighter quantiles
+    static final double COMPRESSION = 100;
+
+    static final PriceSummary EMPTY = new Accumulator().summary();
+
+    private final long count;
+    private final double min;
+    private final double max;
+    private final double mean;
+    // Sum of squared deviations from the mean
+    private final double m2;
+    private final long firstMillis;
+    private final double firstPrice;
+    private final long lastMillis;
+    private final double lastPrice;
+    private final long returnCount;
+    private final double returnMean;
+    private final double returnM2;
+    // Centroids of the digest; a digest compresses itself when read, so it is not kept shared
+    private final double[] centroidMeans;
+    private final int[] centroidWeights;
+
+    private PriceSummary(Accumulator accumulator) {
+        this.count = accumulator.count;
+        this.min = accumulator.min;
+        this.max = accumulator.max;
+        this.mean = accumulator.mean;
+        this.m2 = accumulator.m2;
+        this.firstMillis = accumulator.firstMillis;
+        this.firstPrice = accumulator.firstPrice;
+        this.lastMillis = accumulator.lastMillis;
+        this.lastPrice = accumulator.lastPrice;
+        this.returnCount = accumulator.returnCount;
+        this.returnMean = accumulator.returnMean;
+        this.returnM2 = accumulator.returnM2;
+
+        accumulator.digest.compress();
+        Collection<Centroid> centroids = accumulator.digest.centroids();
+        this.centroidMeans = new double[centroids.size()];
+        this.centroidWeights = new int[centroids.size()];
+        int i = 0;
+        for (Centroid centroid : centroids) {
+            centroidMeans[i] = centroid.mean();
+            centroidWeights[i] = centroid.count();
+            i++;
+        }
+    }
+
+    // Sample variance of the prices, or NaN with fewer than two ticks
+    public double variance() {
+        return count < 2 ? Double.NaN : m2 / (count - 1);
+    }
+
+    // Sample standard deviation of the log returns between consecutive ticks, or NaN with fewer than two returns
+    public double volatility() {
+        return returnCount < 2 ? Double.NaN : Math.sqrt(returnM2 / (returnCount - 1));
+    }
+
+    /**
+     * Approximate price at quantile {@code q} in [0, 1], or NaN if the summary is empty.
+     */
+    public double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        TDigest digest = new MergingDigest(COMPRESSION);
+        addCentroidsTo(digest);
+        return digest.quantile(q);
+    }
+
+    private void addCentroidsTo(TDigest digest) {
+        for (int i = 0; i < centroidMeans.length; i++) {
+            digest.add(centroidMeans[i], centroidWeights[i]);
+        }
+    }
+
+    /**
+     * Folds ticks and summaries into a new summary in a single pass. Input must arrive in timestamp order, and
+     * a summary must cover the ticks right after what was added before it, so the return across the boundary
+     * can be counted.
+     */
+    public static final class Accumulator implements PriceVisitor {
+        private long count;
+        private double min = Double.NaN;
+        private double max = Double.NaN;
+        private double mean;
+        private double m2;
+        private long firstMillis;
+        private double firstPrice = Double.NaN;
+        private long lastMillis;
+        private double lastPrice = Double.NaN;
+        private long returnCount;
+        private double returnMean;
+        private double returnM2;
+        private final TDigest digest = new MergingDigest(COMPRESSION);
+
+        @Override
+        public void visit(long timestampMillis, double price) {
+            if (count == 0) {
+                min = price;
+                max = price;
+                firstMillis = timestampMillis;
+                firstPrice = price;
+            } else {
+                addReturn(lastPrice, price);
+                min = Math.min(min, price);
+                max = Math.max(max, price);
+            }
+            count++;
+            double delta = price - mean;
+            mean += delta / count;
+            m2 += delta * (price - mean);
+            digest.add(price);
+            lastMillis = timestampMillis;
+            lastPrice = price;
+        }
+
+        public void add(PriceSummary summary) {
+            if (summary.count == 0) {
+                return;
+            }
+            if (count == 0) {
+                min = summary.min;
+                max = summary.max;
+                firstMillis = summary.firstMillis;
+                firstPrice = summary.firstPrice;
+            } else {
+                addReturn(lastPrice, summary.firstPrice);
+                min = Math.min(min, summary.min);
+                max = Math.max(max, summary.max);
+            }
+
+            // Chan et al.'s pairwise update of the count, mean and sum of squared deviations
+            long total = count + summary.count;
+            double delta = summary.mean - mean;
+            mean += delta * summary.count / total;
+            m2 += summary.m2 + delta * delta * count * summary.count / total;
+            count = total;
+
+            if (summary.returnCount > 0) {
+                long returns = returnCount + summary.returnCount;
+                double returnDelta = summary.returnMean - returnMean;
+                returnMean += returnDelta * summary.returnCount / returns;
+                returnM2 += summary.returnM2 + returnDelta * returnDelta * returnCount * summary.returnCount / returns;
+                returnCount = returns;
+            }
+
+            summary.addCentroidsTo(digest);
+            lastMillis = summary.lastMillis;
+            lastPrice = summary.lastPrice;
+        }
+
+        public PriceSummary summary() {
+            return new PriceSummary(this);
+        }
+
+        // Log returns are only defined between positive prices
+        private void addReturn(double previous, double price) {
+            if (previous <= 0 || price <= 0) {
+                return;
+            }
+            double logReturn = Math.log(price / previous);
+            returnCount++;
+            double delta = logReturn - returnMean;
+            returnMean += delta / returnCount;
+            returnM2 += delta * (logReturn - returnMean);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.crypto.recommendations.crypto_recommendation_service.store;
+
+/**
+ * Receives ticks as primitives, used to walk a {@link PriceSeries} or stream a price file without boxing
+ * timestamps or prices.
+ */
+@FunctionalInterface
+public interface PriceVisitor {
+
+    void visit(long timestampMillis, double price);
+}
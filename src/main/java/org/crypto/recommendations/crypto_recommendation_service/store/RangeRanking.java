@@ -0,0 +1,79 @@
+package org.crypto.recommendations.crypto_recommendation_service.store;
+
+import org.crypto.recommendations.crypto_recommendation_service.model.WindowedRange;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Symbols ordered by windowed normalized range, one ordering per window. Writes only mark their symbol as
+ * changed, which keeps ingest at O(1) per tick; changed symbols are re-ranked in O(log n) each when the
+ * ranking is next read.
+ */
+final class RangeRanking {
+
+    // Highest range first; ties broken by symbol so every symbol has exactly one place
+    private static final Comparator<WindowedRange> ORDER = Comparator.comparingDouble(WindowedRange::getNormalizedRange).reversed()
+            .thenComparing(WindowedRange::getSymbol);
+
+    private final Set<String> changed = ConcurrentHashMap.newKeySet();
+    private final List<TreeSet<WindowedRange>> orderings = new ArrayList<>();
+    private final List<Map<String, WindowedRange>> entries = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    RangeRanking(int windows) {
+        for (int i = 0; i < windows; i++) {
+            orderings.add(new TreeSet<>(ORDER));
+            entries.add(new HashMap<>());
+        }
+    }
+
+    void markChanged(String symbol) {
+        changed.add(symbol);
+    }
+
+    List<WindowedRange> top(int window, int k, Function<String, PriceSeries> series) {
+        lock.lock();
+        try {
+            for (Iterator<String> iterator = changed.iterator(); iterator.hasNext(); ) {
+                String symbol = iterator.next();
+                // Removed before reading, so a write racing with this read marks the symbol again
+                iterator.remove();
+                PriceSeries target = series.apply(symbol);
+                for (int w = 0; w < orderings.size(); w++) {
+                    rerank(w, symbol, target != null ? target.windowRange(w) : null);
+                }
+            }
+
+            List<WindowedRange> top = new ArrayList<>(Math.min(k, orderings.get(window).size()));
+            for (WindowedRange range : orderings.get(window)) {
+                if (top.size() == k) {
+                    break;
+                }
+                top.add(range);
+            }
+            return top;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void rerank(int window, String symbol, WindowedRange range) {
+        WindowedRange previous = range != null ? entries.get(window).put(symbol, range) : entries.get(window).remove(symbol);
+        if (previous != null) {
+            orderings.get(window).remove(previous);
+        }
+        if (range != null) {
+            orderings.get(window).add(range);
+        }
+    }
+}
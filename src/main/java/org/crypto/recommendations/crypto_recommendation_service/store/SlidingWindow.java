@@ -0,0 +1,112 @@
+package org.crypto.recommendations.crypto_recommendation_service.store;
+
+/**
+ * Min and max over the ticks of the last {@code lengthMillis} before the newest tick, kept in two monotonic
+ * deques. Each tick is pushed and evicted at most once per deque, so appends are O(1) amortized and reads
+ * O(1). Ticks must be appended in timestamp order; not thread-safe.
+ */
+final class SlidingWindow {
+
+    private final long lengthMillis;
+    private final MonotonicDeque mins = new MonotonicDeque(true);
+    private final MonotonicDeque maxes = new MonotonicDeque(false);
+
+    SlidingWindow(long lengthMillis) {
+        if (lengthMillis <= 0) {
+            throw new IllegalArgumentException("Window length must be positive: " + lengthMillis);
+        }
+        this.lengthMillis = lengthMillis;
+    }
+
+    long lengthMillis() {
+        return lengthMillis;
+    }
+
+    void append(long timestampMillis, double price) {
+        mins.push(timestampMillis, price);
+        maxes.push(timestampMillis, price);
+        long cutoff = timestampMillis - lengthMillis;
+        mins.evictUpTo(cutoff);
+        maxes.evictUpTo(cutoff);
+    }
+
+    boolean isEmpty() {
+        return mins.size == 0;
+    }
+
+    double min() {
+        return mins.first();
+    }
+
+    double max() {
+        return maxes.first();
+    }
+
+    void clear() {
+        mins.clear();
+        maxes.clear();
+    }
+
+    // Ring buffer of ticks whose prices only rise (mins) or only fall (maxes) from head to tail
+    private static final class MonotonicDeque {
+        private final boolean ascending;
+        private long[] timestamps = new long[16];
+        private double[] prices = new double[16];
+        private int head;
+        private int size;
+
+        MonotonicDeque(boolean ascending) {
+            this.ascending = ascending;
+        }
+
+        void push(long timestampMillis, double price) {
+            // Drop ticks that can never be the extreme again: the new tick is at least as extreme and outlives them
+            while (size > 0) {
+                double tail = prices[slot(size - 1)];
+                if (ascending ? tail < price : tail > price) {
+                    break;
+                }
+                size--;
+            }
+            if (size == timestamps.length) {
+                grow();
+            }
+            int slot = slot(size);
+            timestamps[slot] = timestampMillis;
+            prices[slot] = price;
+            size++;
+        }
+
+        void evictUpTo(long cutoffMillis) {
+            while (size > 0 && timestamps[head] <= cutoffMillis) {
+                head = slot(1);
+                size--;
+            }
+        }
+
+        double first() {
+            return prices[head];
+        }
+
+        void clear() {
+            head = 0;
+            size = 0;
+        }
+
+        private int slot(int offset) {
+            return (head + offset) & (timestamps.length - 1);
+        }
+
+        private void grow() {
+            long[] newTimestamps = new long[timestamps.length * 2];
+            double[] newPrices = new double[prices.length * 2];
+            for (int i = 0; i < size; i++) {
+                newTimestamps[i] = timestamps[slot(i)];
+                newPrices[i] = prices[slot(i)];
+            }
+            timestamps = newTimestamps;
+            prices = newPrices;
+            head = 0;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.crypto.recommendations.crypto_recommendation_service.store;
+
+import org.crypto.recommendations.crypto_recommendation_service.model.PriceTick;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded FIFO ring of ticks waiting to be written, kept as primitives with each symbol interned to its
+ * registry id. Producers add whole requests or nothing, so a rejected request leaves no partial data behind;
+ * a single consumer drains it in batches.
+ */
+public class TickBuffer {
+
+    private final int[] symbolIds;
+    private final long[] timestamps;
+    private final double[] prices;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition batchReady = lock.newCondition();
+    private int head;
+    private int size;
+    // Size at which a waiting consumer is woken before its linger time is up
+    private int wakeAt = Integer.MAX_VALUE;
+
+    public TickBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Tick buffer capacity must be positive: " + capacity);
+        }
+        this.symbolIds = new int[capacity];
+        this.timestamps = new long[capacity];
+        this.prices = new double[capacity];
+    }
+
+    /**
+     * Appends every tick if they all fit, and otherwise none; {@code symbolIds[i]} is the symbol id of the
+     * {@code i}-th tick.
+     *
+     * @return whether the ticks were accepted
+     */
+    public boolean offerAll(List<PriceTick> ticks, int[] symbolIds) {
+        lock.lock();
+        try {
+            if (ticks.size() > this.symbolIds.length - size) {
+                return false;
+            }
+            for (int i = 0; i < ticks.size(); i++) {
+                PriceTick tick = ticks.get(i);
+                int slot = (head + size) % this.symbolIds.length;
+                this.symbolIds[slot] = symbolIds[i];
+                timestamps[slot] = tick.getTimestamp().toEpochMilli();
+                prices[slot] = tick.getPrice();
+                size++;
+            }
+            if (size >= wakeAt) {
+                batchReady.signal();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves up to {@code symbolIds.length} of the oldest ticks into the given arrays. Waits until that many are
+     * buffered or {@code linger} has passed, whichever comes first, so writes are batched under light load
+     * without delaying them under heavy load.
+     *
+     * @return the number of ticks moved, 0 if none arrived in time
+     */
+    public int drainTo(int[] symbolIds, long[] timestamps, double[] prices, long linger, TimeUnit unit) throws InterruptedException {
+        int max = symbolIds.length;
+        lock.lock();
+        try {
+            long remaining = unit.toNanos(linger);
+            wakeAt = max;
+            while (size < max && remaining > 0) {
+                remaining = batchReady.awaitNanos(remaining);
+            }
+            wakeAt = Integer.MAX_VALUE;
+
+            int count = Math.min(max, size);
+            for (int i = 0; i < count; i++) {
+                int slot = (head + i) % this.symbolIds.length;
+                symbolIds[i] = this.symbolIds[slot];
+                timestamps[i] = this.timestamps[slot];
+                prices[i] = this.prices[slot];
+            }
+            head = (head + count) % this.symbolIds.length;
+            size -= count;
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int capacity() {
+        return symbolIds.length;
+    }
+}
@@ -1,40 +1,191 @@
 package org.crypto.recommendations.crypto_recommendation_service.util;
 
 
+import lombok.extern.slf4j.Slf4j;
 import org.crypto.recommendations.crypto_recommendation_service.model.CryptoPrice;
+import org.crypto.recommendations.crypto_recommendation_service.store.PriceVisitor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.OptionalLong;
+import java.util.zip.CRC32;
 
+@Slf4j
 @Component
 public class CSVLoader {
 
+    // Files are mapped in windows so inputs larger than 2 GB can be parsed too
+    static final long MAP_WINDOW_BYTES = 256L * 1024 * 1024;
+    private static final String FILE_SUFFIX = "_values.csv";
+
+    private final Path dataDirectory;
+
+    public CSVLoader(@Value("${crypto.data.directory:}") String dataDirectory) {
+        this.dataDirectory = dataDirectory == null || dataDirectory.isBlank() ? null : Path.of(dataDirectory);
+    }
+
     public List<CryptoPrice> loadPricesFromCSV(String symbol) {
         List<CryptoPrice> prices = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(
-                getClass().getClassLoader().getResourceAsStream("data/" + symbol + "_values.csv")))) {
-
-            String line;
-            br.readLine(); // Skip header
-            while ((line = br.readLine()) != null) {
-                String[] fields = line.split(",");
-                long timestamp = Long.parseLong(fields[0]);
-                double price = Double.parseDouble(fields[2]);
-
-                CryptoPrice priceData = new CryptoPrice();
-                priceData.setSymbol(symbol);
-                priceData.setPrice(price);
-                priceData.setTimestamp(Instant.ofEpochMilli(timestamp));
-
-                prices.add(priceData);
+        streamPricesFromCSV(symbol, (timestamp, price) -> {
+            CryptoPrice priceData = new CryptoPrice();
+            priceData.setSymbol(symbol);
+            priceData.setPrice(price);
+            priceData.setTimestamp(Instant.ofEpochMilli(timestamp));
+
+            prices.add(priceData);
+        });
+        return prices;
+    }
+
+    /**
+     * Parses the price file and hands each tick to the visitor as it is read, so memory use does not
+     * depend on the size of the file. {@code <crypto.data.directory>/<symbol>_values.csv} is memory-mapped
+     * when present; otherwise the bundled classpath file {@code data/<symbol>_values.csv} is used.
+     *
+     * @return the number of rows read
+     * @throws MalformedPriceFileException if a line cannot be parsed; nothing after that line is delivered
+     */
+    public long streamPricesFromCSV(String symbol, PriceVisitor visitor) {
+        return stream(symbol, new PriceFileCursor(), visitor, false);
+    }
+
+    /**
+     * Like {@link #streamPricesFromCSV(String, PriceVisitor)}, but starts at the cursor's position instead of
+     * the beginning of the file and advances the cursor as lines are read. A last line without a newline may
+     * still be being appended, so it is neither read nor passed by the cursor; it is read by a later call
+     * once it is complete.
+     *
+     * @return the number of rows read after the cursor's starting position
+     */
+    public long streamPricesFromCSV(String symbol, PriceFileCursor cursor, PriceVisitor visitor) {
+        return stream(symbol, cursor, visitor, true);
+    }
+
+    private long stream(String symbol, PriceFileCursor cursor, PriceVisitor visitor, boolean completeLinesOnly) {
+        Path file = localFile(symbol);
+        if (file != null) {
+            return parseMapped(file, cursor, visitor, completeLinesOnly);
+        }
+        return parseClasspath(classpathResource(symbol), cursor, visitor, completeLinesOnly);
+    }
+
+    /**
+     * CRC32 of the {@code length} bytes of the price file that end at offset {@code end}, read from the same
+     * file {@link #streamPricesFromCSV(String, PriceFileCursor, PriceVisitor)} would parse. Only those bytes
+     * are read.
+     *
+     * @return the checksum, or empty if the file is missing or shorter than {@code end}
+     */
+    public OptionalLong checksumOf(String symbol, long end, int length) {
+        if (length < 0 || end < length) {
+            return OptionalLong.empty();
+        }
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+        Path file = localFile(symbol);
+        if (file != null) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (channel.size() < end) {
+                    return OptionalLong.empty();
+                }
+                // A positional read may return fewer bytes than asked for
+                while (bytes.hasRemaining()) {
+                    if (channel.read(bytes, end - length + bytes.position()) < 0) {
+                        return OptionalLong.empty();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read CSV file: " + file, e);
+            }
+        } else {
+            String resource = classpathResource(symbol);
+            try (InputStream input = getClass().getClassLoader().getResourceAsStream(resource)) {
+                if (input == null) {
+                    return OptionalLong.empty();
+                }
+                byte[] content = input.readAllBytes();
+                if (content.length < end) {
+                    return OptionalLong.empty();
+                }
+                bytes.put(content, (int) (end - length), length);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read CSV file: " + resource, e);
             }
-        } catch (Exception e) {
-            e.printStackTrace();
         }
-        return prices;
+        CRC32 crc = new CRC32();
+        crc.update(bytes.flip());
+        return OptionalLong.of(crc.getValue());
+    }
+
+    // <crypto.data.directory>/<symbol>_values.csv if it exists, otherwise null
+    private Path localFile(String symbol) {
+        if (dataDirectory == null) {
+            return null;
+        }
+        Path file = dataDirectory.resolve(symbol + FILE_SUFFIX);
+        return Files.isRegularFile(file) ? file : null;
+    }
+
+    private static String classpathResource(String symbol) {
+        return "data/" + symbol + FILE_SUFFIX;
+    }
+
+    private long parseMapped(Path file, PriceFileCursor cursor, PriceVisitor visitor, boolean completeLinesOnly) {
+        PriceCsvParser parser = new PriceCsvParser(file.toString(), visitor, cursor);
+        long unterminated = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = cursor.getOffset();
+            while (position < size) {
+                long length = Math.min(MAP_WINDOW_BYTES, size - position);
+                boolean lastWindow = position + length == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int consumed = parser.parse(window, lastWindow && !completeLinesOnly);
+                if (lastWindow) {
+                    unterminated = length - consumed;
+                    break;
+                }
+                if (consumed == 0) {
+                    throw new MalformedPriceFileException(file.toString(), parser.getLineNumber() + 1, "line longer than the mapping window");
+                }
+                position += consumed;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read CSV file: " + file, e);
+        }
+        if (unterminated > 0) {
+            log.info("Left the last {} bytes of {} for the next load, as they do not end in a newline yet", unterminated, file);
+        }
+        log.info("Parsed {} rows from {}", parser.getRows(), file);
+        return parser.getRows();
+    }
+
+    private long parseClasspath(String resource, PriceFileCursor cursor, PriceVisitor visitor, boolean completeLinesOnly) {
+        PriceCsvParser parser = new PriceCsvParser(resource, visitor, cursor);
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(resource)) {
+            if (input == null) {
+                throw new UncheckedIOException(new FileNotFoundException("CSV file not found: " + resource));
+            }
+            // Bundled files are small samples; large histories belong in crypto.data.directory
+            byte[] content = input.readAllBytes();
+            int start = (int) Math.min(cursor.getOffset(), content.length);
+            parser.parse(ByteBuffer.wrap(content, start, content.length - start).slice(), !completeLinesOnly);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read CSV file: " + resource, e);
+        }
+        log.info("Parsed {} rows from classpath:{}", parser.getRows(), resource);
+        return parser.getRows();
     }
 }
@@ -0,0 +1,20 @@
+package org.crypto.recommendations.crypto_recommendation_service.util;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a price file contains a line that cannot be parsed. Carries the file and 1-based line number
+ * so operators can find the offending row.
+ */
+@Getter
+public class MalformedPriceFileException extends RuntimeException {
+
+    private final String source;
+    private final long lineNumber;
+
+    public MalformedPriceFileException(String source, long lineNumber, String reason) {
+        super("Malformed price file " + source + " at line " + lineNumber + ": " + reason);
+        this.source = source;
+        this.lineNumber = lineNumber;
+    }
+}
@@ -0,0 +1,198 @@
+package org.crypto.recommendations.crypto_recommendation_service.util;
+
+import lombok.Getter;
+import org.crypto.recommendations.crypto_recommendation_service.store.PriceVisitor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Byte-level parser for {@code timestamp,symbol,price} files.
+ * <p>
+ * Works directly on a (typically memory-mapped) {@link ByteBuffer} and decodes timestamp and price into
+ * primitives without creating strings, split arrays or boxed numbers. The symbol column is skipped, since
+ * the caller already knows which symbol the file belongs to. Input may be fed in consecutive windows;
+ * {@link #parse(ByteBuffer, boolean)} reports how far it got so a partial trailing line can be re-fed
+ * with the next window. Progress is tracked in a {@link PriceFileCursor}; when the parser starts from a
+ * saved one, the first buffer must begin at the cursor's offset.
+ */
+class PriceCsvParser {
+
+    // Largest significand that is exact as a double, and the exact powers of ten we can scale by
+    private static final int MAX_FAST_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final String source;
+    private final PriceVisitor visitor;
+    private final PriceFileCursor cursor;
+    // File offset of index 0 of the buffer being parsed
+    private long base;
+
+    @Getter
+    private long lineNumber;
+    @Getter
+    private long rows;
+
+    PriceCsvParser(String source, PriceVisitor visitor) {
+        this(source, visitor, new PriceFileCursor());
+    }
+
+    PriceCsvParser(String source, PriceVisitor visitor, PriceFileCursor cursor) {
+        this.source = source;
+        this.visitor = visitor;
+        this.cursor = cursor;
+        this.base = cursor.getOffset();
+        this.lineNumber = cursor.getLineNumber();
+    }
+
+    /**
+     * Parses every complete line between index 0 and the buffer's limit.
+     *
+     * @param endOfInput whether the buffer ends the input, in which case a final line without newline is parsed too
+     * @return the number of bytes consumed; anything after that is an incomplete line
+     */
+    int parse(ByteBuffer buffer, boolean endOfInput) {
+        int limit = buffer.limit();
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = indexOfNewline(buffer, lineStart, limit);
+            if (lineEnd < 0) {
+                if (!endOfInput) {
+                    base += lineStart;
+                    return lineStart;
+                }
+                lineEnd = limit;
+            }
+            lineNumber++;
+            int next = Math.min(lineEnd + 1, limit);
+
+            int end = lineEnd;
+            if (end > lineStart && buffer.get(end - 1) == '\r') {
+                end--;
+            }
+            // The first line is the header; blank lines are tolerated
+            if (lineNumber > 1 && end > lineStart) {
+                parseLine(buffer, lineStart, end, next);
+            } else {
+                cursor.advance(buffer, lineStart, next, base + next, lineNumber);
+            }
+            lineStart = next;
+        }
+        base += limit;
+        return limit;
+    }
+
+    private void parseLine(ByteBuffer buffer, int start, int end, int next) {
+        int i = start;
+        long timestamp = 0;
+        int digits = 0;
+        byte b;
+        while (i < end && (b = buffer.get(i)) != ',') {
+            if (b < '0' || b > '9') {
+                throw malformed("invalid timestamp");
+            }
+            if (timestamp > (Long.MAX_VALUE - (b - '0')) / 10) {
+                throw malformed("timestamp out of range");
+            }
+            timestamp = timestamp * 10 + (b - '0');
+            digits++;
+            i++;
+        }
+        if (digits == 0 || i == end) {
+            throw malformed("missing timestamp or symbol column");
+        }
+
+        // Skip the symbol column
+        i++;
+        while (i < end && buffer.get(i) != ',') {
+            i++;
+        }
+        if (i == end) {
+            throw malformed("missing price column");
+        }
+
+        double price = parsePrice(buffer, i + 1, end);
+        cursor.advance(buffer, start, next, base + next, lineNumber);
+        visitor.visit(timestamp, price);
+        rows++;
+    }
+
+    private double parsePrice(ByteBuffer buffer, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+
+        long significand = 0;
+        int significantDigits = 0;
+        int fractionDigits = 0;
+        boolean anyDigit = false;
+        boolean inFraction = false;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                anyDigit = true;
+                if (significand != 0 || b != '0') {
+                    significantDigits++;
+                }
+                if (significantDigits > MAX_FAST_DIGITS) {
+                    return parsePriceSlow(buffer, start, end);
+                }
+                significand = significand * 10 + (b - '0');
+                if (inFraction && ++fractionDigits >= POWERS_OF_TEN.length) {
+                    return parsePriceSlow(buffer, start, end);
+                }
+            } else if (b == '.' && !inFraction) {
+                inFraction = true;
+            } else if ((b == 'e' || b == 'E') && anyDigit) {
+                return parsePriceSlow(buffer, start, end);
+            } else if (b == ',') {
+                // Extra trailing columns are ignored
+                end = i;
+                break;
+            } else {
+                throw malformed("invalid price");
+            }
+        }
+        if (!anyDigit) {
+            throw malformed("invalid price");
+        }
+
+        // Both operands are exact, so a single division yields the correctly rounded double
+        double value = (double) significand / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    // Rare inputs (exponents, more than 15 significant digits) go through the JDK parser
+    private double parsePriceSlow(ByteBuffer buffer, int start, int end) {
+        int stop = start;
+        while (stop < end && buffer.get(stop) != ',') {
+            stop++;
+        }
+        byte[] bytes = new byte[stop - start];
+        buffer.get(start, bytes);
+        try {
+            return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            throw malformed("invalid price");
+        }
+    }
+
+    private static int indexOfNewline(ByteBuffer buffer, int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private MalformedPriceFileException malformed(String reason) {
+        return new MalformedPriceFileException(source, lineNumber, reason);
+    }
+}
@@ -0,0 +1,62 @@
+package org.crypto.recommendations.crypto_recommendation_service.util;
+
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * Position in a price file, advanced by the parser as lines are handed out. Starting a parse from a saved
+ * cursor skips everything before it, which is how an interrupted or repeated load picks up where the last
+ * one stopped.
+ * <p>
+ * Data lines only advance the cursor once they parsed, right before the visitor sees them, so a visitor
+ * that saves the cursor never records a position past a line it has not received.
+ */
+public class PriceFileCursor {
+
+    // Byte offset just past the last line handed out
+    @Getter
+    private long offset;
+    // Lines handed out so far, counting the header
+    @Getter
+    private long lineNumber;
+
+    // The last line, kept by reference and only checksummed when asked for
+    private ByteBuffer lineBuffer;
+    private int lineStart;
+    private int lineEnd;
+
+    public PriceFileCursor() {
+    }
+
+    public PriceFileCursor(long offset, long lineNumber) {
+        this.offset = offset;
+        this.lineNumber = lineNumber;
+    }
+
+    // Length in bytes of the last line handed out, including its newline
+    public int getLineLength() {
+        return lineEnd - lineStart;
+    }
+
+    /**
+     * CRC32 of the last line handed out, including its newline; compare with
+     * {@link CSVLoader#checksumOf(String, long, int)} to check that the file still holds that line.
+     */
+    public long lineChecksum() {
+        CRC32 crc = new CRC32();
+        if (lineBuffer != null) {
+            crc.update(lineBuffer.slice(lineStart, lineEnd - lineStart));
+        }
+        return crc.getValue();
+    }
+
+    void advance(ByteBuffer buffer, int start, int end, long offset, long lineNumber) {
+        this.lineBuffer = buffer;
+        this.lineStart = start;
+        this.lineEnd = end;
+        this.offset = offset;
+        this.lineNumber = lineNumber;
+    }
+}
@@ -0,0 +1,26 @@
+CREATE TABLE CRYPTO_PRICES (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    symbol    VARCHAR(255)             NOT NULL,
+    price     DOUBLE PRECISION         NOT NULL,
+    timestamp TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT uk_crypto_prices_symbol_timestamp UNIQUE (symbol, timestamp)
+);
+
+-- The unique constraint's (symbol, timestamp) index serves per-symbol lookups in time order;
+-- this one serves time-range scans across all symbols
+CREATE INDEX idx_crypto_prices_timestamp ON CRYPTO_PRICES (timestamp);
+
+CREATE TABLE CRYPTO_PRICE_ROLLUPS (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    symbol       VARCHAR(255)             NOT NULL,
+    granularity  VARCHAR(16)              NOT NULL,
+    bucket_start TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    open         DOUBLE PRECISION         NOT NULL,
+    high         DOUBLE PRECISION         NOT NULL,
+    low          DOUBLE PRECISION         NOT NULL,
+    close        DOUBLE PRECISION         NOT NULL,
+    tick_count   BIGINT                   NOT NULL,
+    CONSTRAINT uk_crypto_price_rollups_bucket UNIQUE (symbol, granularity, bucket_start)
+);
+
+CREATE INDEX idx_crypto_price_rollups_granularity_bucket ON CRYPTO_PRICE_ROLLUPS (granularity, bucket_start);
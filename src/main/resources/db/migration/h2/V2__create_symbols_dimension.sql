@@ -0,0 +1,18 @@
+-- Each symbol's text is stored once; price rows reference it by a small integer key, which keeps rows and
+-- the (symbol_id, timestamp) index narrow and turns symbol filters into integer comparisons
+CREATE TABLE SYMBOLS (
+    id     INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    symbol VARCHAR(64) NOT NULL,
+    CONSTRAINT uk_symbols_symbol UNIQUE (symbol)
+);
+
+INSERT INTO SYMBOLS (symbol) SELECT DISTINCT symbol FROM CRYPTO_PRICES ORDER BY symbol;
+
+ALTER TABLE CRYPTO_PRICES ADD COLUMN symbol_id INTEGER;
+UPDATE CRYPTO_PRICES p SET symbol_id = (SELECT s.id FROM SYMBOLS s WHERE s.symbol = p.symbol);
+ALTER TABLE CRYPTO_PRICES ALTER COLUMN symbol_id SET NOT NULL;
+
+ALTER TABLE CRYPTO_PRICES DROP CONSTRAINT uk_crypto_prices_symbol_timestamp;
+ALTER TABLE CRYPTO_PRICES DROP COLUMN symbol;
+ALTER TABLE CRYPTO_PRICES ADD CONSTRAINT uk_crypto_prices_symbol_id_timestamp UNIQUE (symbol_id, timestamp);
+ALTER TABLE CRYPTO_PRICES ADD CONSTRAINT fk_crypto_prices_symbol FOREIGN KEY (symbol_id) REFERENCES SYMBOLS (id);
@@ -0,0 +1,41 @@
+-- Ticks are range-partitioned by year so time-bounded queries prune whole partitions and old years can be
+-- detached cheaply. Partition keys must be part of every unique constraint, hence the (id, timestamp) key.
+CREATE TABLE crypto_prices (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    symbol    VARCHAR(255)     NOT NULL,
+    price     DOUBLE PRECISION NOT NULL,
+    timestamp TIMESTAMPTZ      NOT NULL,
+    CONSTRAINT pk_crypto_prices PRIMARY KEY (id, timestamp),
+    CONSTRAINT uk_crypto_prices_symbol_timestamp UNIQUE (symbol, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+DO $$
+BEGIN
+    FOR year IN 2015..2030 LOOP
+        EXECUTE format(
+            'CREATE TABLE crypto_prices_%s PARTITION OF crypto_prices FOR VALUES FROM (%L) TO (%L)',
+            year, make_date(year, 1, 1), make_date(year + 1, 1, 1));
+    END LOOP;
+END $$;
+
+-- Catches ticks outside the pre-created years until a later migration adds their partition
+CREATE TABLE crypto_prices_default PARTITION OF crypto_prices DEFAULT;
+
+-- The unique constraint's (symbol, timestamp) index serves per-symbol lookups in time order;
+-- this one serves time-range scans across all symbols
+CREATE INDEX idx_crypto_prices_timestamp ON crypto_prices (timestamp);
+
+CREATE TABLE crypto_price_rollups (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    symbol       VARCHAR(255)     NOT NULL,
+    granularity  VARCHAR(16)      NOT NULL,
+    bucket_start TIMESTAMPTZ      NOT NULL,
+    open         DOUBLE PRECISION NOT NULL,
+    high         DOUBLE PRECISION NOT NULL,
+    low          DOUBLE PRECISION NOT NULL,
+    close        DOUBLE PRECISION NOT NULL,
+    tick_count   BIGINT           NOT NULL,
+    CONSTRAINT uk_crypto_price_rollups_bucket UNIQUE (symbol, granularity, bucket_start)
+);
+
+CREATE INDEX idx_crypto_price_rollups_granularity_bucket ON crypto_price_rollups (granularity, bucket_start);
@@ -0,0 +1,20 @@
+-- Each symbol's text is stored once; price rows reference it by a small integer key, which keeps rows and
+-- the (symbol_id, timestamp) index narrow and turns symbol filters into integer comparisons
+CREATE TABLE symbols (
+    id     INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    symbol VARCHAR(64) NOT NULL,
+    CONSTRAINT uk_symbols_symbol UNIQUE (symbol)
+);
+
+INSERT INTO symbols (symbol) SELECT DISTINCT symbol FROM crypto_prices ORDER BY symbol;
+
+-- Rewrites every partition once; on large histories run this in a maintenance window
+ALTER TABLE crypto_prices ADD COLUMN symbol_id INTEGER;
+UPDATE crypto_prices p SET symbol_id = s.id FROM symbols s WHERE s.symbol = p.symbol;
+ALTER TABLE crypto_prices ALTER COLUMN symbol_id SET NOT NULL;
+
+ALTER TABLE crypto_prices DROP CONSTRAINT uk_crypto_prices_symbol_timestamp;
+ALTER TABLE crypto_prices DROP COLUMN symbol;
+-- Includes the partition key, as every unique constraint on a partitioned table must
+ALTER TABLE crypto_prices ADD CONSTRAINT uk_crypto_prices_symbol_id_timestamp UNIQUE (symbol_id, timestamp);
+ALTER TABLE crypto_prices ADD CONSTRAINT fk_crypto_prices_symbol FOREIGN KEY (symbol_id) REFERENCES symbols (id);
@@ -0,0 +1,12 @@
+-- How far each symbol's price file has been loaded: the end of the last committed line, and a checksum of
+-- that line to tell whether the file still starts with what was loaded or has been replaced since
+CREATE TABLE ingest_checkpoints (
+    symbol_id       INTEGER                  NOT NULL PRIMARY KEY,
+    file_name       VARCHAR(64)              NOT NULL,
+    byte_offset     BIGINT                   NOT NULL,
+    line_number     BIGINT                   NOT NULL,
+    checksum        BIGINT                   NOT NULL,
+    checksum_length INTEGER                  NOT NULL,
+    updated_at      TIMESTAMPTZ              NOT NULL,
+    CONSTRAINT fk_ingest_checkpoints_symbol FOREIGN KEY (symbol_id) REFERENCES symbols (id)
+);
@@ -1,13 +1,46 @@
 package org.crypto.recommendations.crypto_recommendation_service;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
 
-@SpringBootTest
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(properties = "crypto.rate-limit.failed-authentications-per-minute=5")
+@AutoConfigureMockMvc
 class CryptoRecommendationServiceApplicationTests {
 
+	@Autowired
+	private MockMvc mockMvc;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void repeatedFailedAuthenticationsFromOneAddressAreRateLimited() throws Exception {
+		String wrongCredentials = "Basic " + Base64.getEncoder().encodeToString("admin:guess".getBytes(StandardCharsets.UTF_8));
+
+		for (int i = 0; i < 5; i++) {
+			assertEquals(401, loadData(wrongCredentials));
+		}
+		assertEquals(429, loadData(wrongCredentials));
+	}
+
+	private int loadData(String authorization) throws Exception {
+		return mockMvc.perform(post("/cryptos/load-data/BTC")
+						.header(HttpHeaders.AUTHORIZATION, authorization)
+						.with(request -> {
+							request.setRemoteAddr("203.0.113.7");
+							return request;
+						}))
+				.andReturn().getResponse().getStatus();
+	}
 }
@@ -0,0 +1,60 @@
+package org.crypto.recommendations.crypto_recommendation_service.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CryptoConfigTest {
+
+    @TempDir
+    Path dataDirectory;
+
+    @Test
+    void shouldRegisterSymbolsFromPropertiesAndDataDirectory() throws Exception {
+        Files.writeString(dataDirectory.resolve("SOL_values.csv"), "timestamp,symbol,price\n");
+        Files.writeString(dataDirectory.resolve("BTC_values.csv"), "timestamp,symbol,price\n");
+        Files.writeString(dataDirectory.resolve("notes.txt"), "");
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("crypto.symbols.BTC", "BTC")
+                .withProperty("crypto.symbols.ETH", "ether");
+
+        CryptoConfig cryptoConfig = new CryptoConfig(environment, dataDirectory.toString());
+
+        assertEquals(Map.of("BTC", "BTC", "ETH", "ether", "SOL", "SOL"), cryptoConfig.getSymbols());
+        assertEquals(3, cryptoConfig.size());
+        assertEquals("SOL", cryptoConfig.symbolOf(cryptoConfig.idOf("SOL")));
+    }
+
+    @Test
+    void shouldInternSymbolsToStableDenseIds() {
+        CryptoConfig cryptoConfig = new CryptoConfig();
+
+        assertEquals(0, cryptoConfig.register("BTC", "BTC"));
+        assertEquals(1, cryptoConfig.register("ETH-USD", "ETH"));
+        // Re-registering keeps the id and only changes the file
+        assertEquals(0, cryptoConfig.register("BTC", "BTC_2022"));
+
+        assertEquals(2, cryptoConfig.size());
+        assertEquals("BTC_2022", cryptoConfig.getSymbols().get("BTC"));
+        assertEquals("ETH-USD", cryptoConfig.symbolOf(1));
+        assertEquals(-1, cryptoConfig.idOf("DOGE"));
+    }
+
+    @Test
+    void shouldRejectMalformedSymbolsAndFileNames() {
+        CryptoConfig cryptoConfig = new CryptoConfig();
+
+        assertThrows(IllegalArgumentException.class, () -> cryptoConfig.register("btc", "BTC"));
+        assertThrows(IllegalArgumentException.class, () -> cryptoConfig.register("BTC", "../secrets"));
+        assertThrows(IllegalArgumentException.class, () -> cryptoConfig.register("BTC", "/etc/passwd"));
+        assertFalse(cryptoConfig.getSymbols().containsKey("BTC"));
+    }
+}
@@ -0,0 +1,37 @@
+package org.crypto.recommendations.crypto_recommendation_service.config;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MetricsConfigTest {
+
+    @Test
+    void shouldApplyPercentilesPerEndpoint() {
+        EndpointMetricsProperties properties = new EndpointMetricsProperties();
+        properties.setPercentiles(List.of(0.5, 0.99));
+        properties.setEndpoints(Map.of("/cryptos/{symbol}/prices", List.of(0.9)));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(new MetricsConfig().endpointPercentiles(properties));
+
+        assertEquals(List.of(0.5, 0.99), percentilesOf(registry, MetricsConfig.HTTP_SERVER_REQUESTS, "/cryptos/{symbol}/stats"));
+        assertEquals(List.of(0.9), percentilesOf(registry, MetricsConfig.HTTP_SERVER_REQUESTS, "/cryptos/{symbol}/prices"));
+        // Other timers keep their own configuration
+        assertEquals(List.of(), percentilesOf(registry, "crypto.other", "/cryptos/{symbol}/stats"));
+    }
+
+    private static List<Double> percentilesOf(SimpleMeterRegistry registry, String name, String uri) {
+        Timer timer = Timer.builder(name).tags(Tags.of("uri", uri)).register(registry);
+        timer.record(10, TimeUnit.MILLISECONDS);
+        return Arrays.stream(timer.takeSnapshot().percentileValues()).map(ValueAtPercentile::percentile).toList();
+    }
+}
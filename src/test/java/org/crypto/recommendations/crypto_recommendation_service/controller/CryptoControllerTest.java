@@ -1,20 +1,35 @@
 package org.crypto.recommendations.crypto_recommendation_service.controller;
 
+import org.crypto.recommendations.crypto_recommendation_service.config.CryptoConfig;
+import org.crypto.recommendations.crypto_recommendation_service.model.LatestPrice;
+import org.crypto.recommendations.crypto_recommendation_service.model.LoadStatus;
+import org.crypto.recommendations.crypto_recommendation_service.model.WindowedRange;
+import org.crypto.recommendations.crypto_recommendation_service.repository.SymbolDictionary;
+import org.crypto.recommendations.crypto_recommendation_service.service.BulkLoadService;
 import org.crypto.recommendations.crypto_recommendation_service.service.CryptoService;
+import org.crypto.recommendations.crypto_recommendation_service.service.TickBufferFullException;
+import org.crypto.recommendations.crypto_recommendation_service.service.TickIngestService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class CryptoControllerTest {
@@ -22,6 +37,18 @@ class CryptoControllerTest {
     @Mock
     private CryptoService cryptoService;
 
+    @Mock
+    private BulkLoadService bulkLoadService;
+
+    @Mock
+    private TickIngestService tickIngestService;
+
+    @Mock
+    private CryptoConfig cryptoConfig;
+
+    @Mock
+    private SymbolDictionary symbolDictionary;
+
     @InjectMocks
     private CryptoController cryptoController;
 
@@ -30,6 +57,33 @@ class CryptoControllerTest {
         MockitoAnnotations.openMocks(this);
     }
 
+    @Test
+    void testRegisterSymbol() {
+        // Arrange
+        when(cryptoConfig.register("SOL", "SOL")).thenReturn(5);
+
+        // Act
+        Map<String, Object> response = cryptoController.registerSymbol("SOL", null);
+
+        // Assert
+        assertEquals(Map.of("symbol", "SOL", "id", 5), response);
+        verify(symbolDictionary).idFor("SOL");
+    }
+
+    @Test
+    void testGetTopByWindowedRange() {
+        // Arrange
+        List<WindowedRange> top = List.of(new WindowedRange("ETH", 0.1, 100.0, 110.0,
+                Instant.parse("2022-01-01T00:00:00Z"), Instant.parse("2022-01-02T00:00:00Z")));
+        when(cryptoService.getTopByWindowedRange("24h", 1)).thenReturn(top);
+
+        // Act
+        List<WindowedRange> response = cryptoController.getTopByWindowedRange("24h", 1);
+
+        // Assert
+        assertEquals(top, response);
+    }
+
     @Test
     void testGetCryptoStatistics() {
         // Arrange
@@ -43,6 +97,23 @@ class CryptoControllerTest {
         assertEquals(mockStats, response);
     }
 
+    @Test
+    void testGetLatestPrice() {
+        // Arrange
+        LatestPrice latest = new LatestPrice("BTC", 50000.0, Instant.parse("2022-01-31T20:00:00Z"));
+        when(cryptoService.getLatestPrice("BTC")).thenReturn(Optional.of(latest));
+        when(cryptoService.getLatestPrice("NOPE")).thenReturn(Optional.empty());
+
+        // Act
+        ResponseEntity<LatestPrice> found = cryptoController.getLatestPrice("BTC");
+        ResponseEntity<LatestPrice> missing = cryptoController.getLatestPrice("NOPE");
+
+        // Assert
+        assertEquals(HttpStatus.OK, found.getStatusCode());
+        assertEquals(latest, found.getBody());
+        assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+    }
+
     @Test
     void testGetCryptosSortedByNormalizedRange() {
         // Arrange
@@ -105,4 +176,48 @@ class CryptoControllerTest {
         assertEquals("Failed to load crypto data: CSV file not found", response.getBody());
     }
 
+    @Test
+    void testLoadAllCryptoDataPartialFailure() {
+        // Arrange
+        Map<String, LoadStatus> result = Map.of(
+                "BTC", LoadStatus.pending("BTC").running().completed(100),
+                "ETH", LoadStatus.pending("ETH").running().failed("CSV file not found"));
+        when(bulkLoadService.loadAll()).thenReturn(result);
+
+        // Act
+        ResponseEntity<Map<String, LoadStatus>> response = cryptoController.loadAllCryptoData();
+
+        // Assert
+        assertEquals(HttpStatus.MULTI_STATUS, response.getStatusCode());
+        assertEquals(result, response.getBody());
+    }
+
+    @Test
+    void testLoadAllCryptoDataAlreadyRunning() {
+        // Arrange
+        when(bulkLoadService.loadAll()).thenThrow(new IllegalStateException("A bulk load is already in progress"));
+
+        // Act
+        ResponseEntity<Map<String, LoadStatus>> response = cryptoController.loadAllCryptoData();
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    @Test
+    void testIngestTicks() throws Exception {
+        // Arrange
+        InputStream body = new ByteArrayInputStream("[]".getBytes(StandardCharsets.UTF_8));
+        when(tickIngestService.accept(body)).thenReturn(2);
+
+        // Act
+        ResponseEntity<Map<String, Integer>> accepted = cryptoController.ingestTicks(body);
+        ResponseEntity<String> full = cryptoController.handleTickBufferFull(new TickBufferFullException(2, 99, 100));
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, accepted.getStatusCode());
+        assertEquals(Map.of("accepted", 2), accepted.getBody());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, full.getStatusCode());
+        assertEquals("1", full.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
 }
@@ -0,0 +1,90 @@
+package org.crypto.recommendations.crypto_recommendation_service.filter;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.crypto.recommendations.crypto_recommendation_service.config.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AuthenticationFailureLimitFilterTest {
+
+    private final long[] now = {0};
+    private AuthenticationFailureLimitFilter filter;
+    // Stands in for authentication: only "good" credentials pass
+    private final FilterChain authentication = (request, response) -> {
+        String header = ((MockHttpServletRequest) request).getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && !header.equals("good")) {
+            ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setFailedAuthenticationsPerMinute(3);
+        filter = new AuthenticationFailureLimitFilter(properties, () -> now[0]);
+    }
+
+    @Test
+    void shouldRejectCredentialsFromAddressAfterRepeatedFailures() throws ServletException, IOException {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(401, status("10.0.0.1", "bad"));
+        }
+        assertEquals(429, status("10.0.0.1", "bad"));
+        // Refused before authentication, even with the right credentials
+        assertEquals(429, status("10.0.0.1", "good"));
+        assertEquals(2, filter.rejectedRequests());
+
+        // Other addresses and requests without credentials are not affected
+        assertEquals(401, status("10.0.0.2", "bad"));
+        assertEquals(200, status("10.0.0.1", null));
+
+        // One attempt's worth of allowance comes back every 20 seconds
+        now[0] += TimeUnit.SECONDS.toNanos(20);
+        assertEquals(200, status("10.0.0.1", "good"));
+    }
+
+    @Test
+    void shouldNeverChargeSuccessfulAuthentications() throws ServletException, IOException {
+        for (int i = 0; i < 100; i++) {
+            assertEquals(200, status("10.0.0.1", "good"));
+        }
+        assertEquals(0, filter.rejectedRequests());
+    }
+
+    @Test
+    void shouldCountEachFailureOnceDespiteErrorDispatch() throws ServletException, IOException {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(401, status("10.0.0.1", "bad"));
+            // The container renders the 401 through an error dispatch of the same request
+            assertEquals(401, status("10.0.0.1", "bad", DispatcherType.ERROR));
+        }
+        assertEquals(429, status("10.0.0.1", "bad"));
+    }
+
+    private int status(String address, String credentials) throws ServletException, IOException {
+        return status(address, credentials, DispatcherType.REQUEST);
+    }
+
+    private int status(String address, String credentials, DispatcherType dispatcherType) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/cryptos/ticks");
+        request.setDispatcherType(dispatcherType);
+        request.setRemoteAddr(address);
+        if (credentials != null) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, credentials);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, authentication);
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,71 @@
+package org.crypto.recommendations.crypto_recommendation_service.filter;
+
+import org.crypto.recommendations.crypto_recommendation_service.controller.CryptoController;
+import org.crypto.recommendations.crypto_recommendation_service.service.DataVersionRegistry;
+import org.crypto.recommendations.crypto_recommendation_service.service.PriceDataChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConditionalGetInterceptorTest {
+
+    private DataVersionRegistry dataVersionRegistry;
+    private ConditionalGetInterceptor interceptor;
+    private HandlerMethod statsHandler;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        dataVersionRegistry = new DataVersionRegistry();
+        interceptor = new ConditionalGetInterceptor(dataVersionRegistry);
+        statsHandler = new HandlerMethod(new CryptoController(), CryptoController.class.getMethod("getCryptoStatistics", String.class));
+    }
+
+    @Test
+    void shouldAnswerNotModifiedWhileSymbolIsUnchanged() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(statsRequest("BTC", null), first, statsHandler));
+        String etag = first.getHeader("ETag");
+        assertNotNull(etag);
+        assertNotNull(first.getHeader("Last-Modified"));
+
+        // Loading another symbol does not change the BTC statistics
+        dataVersionRegistry.onPriceDataChanged(new PriceDataChangedEvent("ETH", 0L, 0L));
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(statsRequest("BTC", etag), second, statsHandler));
+        assertEquals(304, second.getStatus());
+    }
+
+    @Test
+    void shouldServeNewTagAfterSymbolIsLoaded() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        interceptor.preHandle(statsRequest("BTC", null), first, statsHandler);
+        String etag = first.getHeader("ETag");
+
+        dataVersionRegistry.onPriceDataChanged(new PriceDataChangedEvent("BTC", 0L, 0L));
+        MockHttpServletResponse second = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(statsRequest("BTC", etag), second, statsHandler));
+        assertEquals(200, second.getStatus());
+        assertNotEquals(etag, second.getHeader("ETag"));
+    }
+
+    private static MockHttpServletRequest statsRequest(String symbol, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/cryptos/" + symbol + "/stats");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("symbol", symbol));
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return request;
+    }
+}
@@ -2,13 +2,19 @@ package org.crypto.recommendations.crypto_recommendation_service.filter;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
+import org.crypto.recommendations.crypto_recommendation_service.config.RateLimitProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -74,4 +80,80 @@ class RateLimitFilterTest {
         rateLimitFilter.doFilter(request, response, filterChain);
         assertEquals(200, response.getStatus());
     }
+
+    @Test
+    void shouldRefillContinuouslyAndReportRetryAfter() throws ServletException, IOException {
+        long[] now = {0};
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRequestsPerMinute(60);
+        RateLimitFilter filter = new RateLimitFilter(properties, () -> now[0]);
+
+        for (int i = 0; i < 60; i++) {
+            filter.doFilter(request, response, filterChain);
+        }
+        MockHttpServletResponse limited = new MockHttpServletResponse();
+        filter.doFilter(request, limited, filterChain);
+        assertEquals(429, limited.getStatus());
+        assertEquals("1", limited.getHeader("Retry-After"));
+
+        // One request's worth of allowance comes back every second
+        now[0] += TimeUnit.SECONDS.toNanos(1);
+        MockHttpServletResponse refilled = new MockHttpServletResponse();
+        filter.doFilter(request, refilled, filterChain);
+        assertEquals(200, refilled.getStatus());
+        assertEquals(1, filter.rejectedRequests());
+    }
+
+    @Test
+    void shouldApplyRouteAndPrincipalLimits() throws ServletException, IOException {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getRoutes().put("/cryptos/load-data", 2);
+        properties.getPrincipals().put("admin", 3);
+        RateLimitFilter filter = new RateLimitFilter(properties);
+
+        MockHttpServletRequest load = new MockHttpServletRequest("POST", "/cryptos/load-data/BTC");
+        MockHttpServletRequest stats = new MockHttpServletRequest("GET", "/cryptos/BTC/stats");
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("admin", null, List.of()));
+        try {
+            assertEquals(List.of(200, 200, 429), statuses(filter, load, 3));
+            // The route allowance is separate from the principal's general allowance
+            assertEquals(List.of(200, 200, 200, 429), statuses(filter, stats, 4));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        // Anonymous clients from the same address keep the default limit
+        assertEquals(List.of(200, 200, 200, 200), statuses(filter, stats, 4));
+    }
+
+    @Test
+    void shouldKeepTableBoundedAndForgetIdleClients() throws ServletException, IOException {
+        long[] now = {0};
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setTableSize(64);
+        RateLimitFilter filter = new RateLimitFilter(properties, () -> now[0]);
+
+        for (int i = 0; i < 10_000; i++) {
+            MockHttpServletRequest scanner = new MockHttpServletRequest();
+            scanner.setRemoteAddr("10.0." + (i >> 8) + "." + (i & 0xff));
+            MockHttpServletResponse scannerResponse = new MockHttpServletResponse();
+            filter.doFilter(scanner, scannerResponse, filterChain);
+            assertEquals(200, scannerResponse.getStatus());
+        }
+        assertTrue(filter.activeClients() <= 64);
+
+        now[0] += TimeUnit.MINUTES.toNanos(1);
+        assertEquals(0, filter.activeClients());
+    }
+
+    private List<Integer> statuses(RateLimitFilter filter, MockHttpServletRequest request, int count) throws ServletException, IOException {
+        List<Integer> statuses = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            MockHttpServletResponse current = new MockHttpServletResponse();
+            filter.doFilter(request, current, filterChain);
+            statuses.add(current.getStatus());
+        }
+        return statuses;
+    }
 }
@@ -0,0 +1,97 @@
+package org.crypto.recommendations.crypto_recommendation_service.repository;
+
+import org.crypto.recommendations.crypto_recommendation_service.config.CryptoConfig;
+import org.crypto.recommendations.crypto_recommendation_service.model.CryptoPrice;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import({CryptoPriceJdbcRepository.class, SymbolDictionary.class, CryptoConfig.class})
+@TestPropertySource(properties = "crypto.ingest.batch-size=2")
+class CryptoPriceJdbcRepositoryTest {
+
+    @Autowired
+    private CryptoPriceJdbcRepository cryptoPriceJdbcRepository;
+
+    @Autowired
+    private CryptoPriceRepository cryptoPriceRepository;
+
+    @Test
+    void testBatchInsertIsReadableThroughJpa() {
+        Instant first = Instant.parse("2022-01-01T04:00:00Z");
+
+        try (CryptoPriceJdbcRepository.Batch batch = cryptoPriceJdbcRepository.openBatch("BTC")) {
+            batch.add(first.toEpochMilli(), 46813.21);
+            batch.add(first.plusSeconds(3600).toEpochMilli(), 46979.61);
+            // Flushed on close, as the third row does not fill a batch
+            batch.add(first.plusSeconds(7200).toEpochMilli(), 47120.0);
+            assertEquals(2, batch.getWritten());
+        }
+
+        List<CryptoPrice> prices = cryptoPriceRepository.findBySymbol("BTC", Sort.by("timestamp").ascending());
+        assertEquals(3, prices.size());
+        assertEquals(first, prices.get(0).getTimestamp());
+        assertEquals(46813.21, prices.get(0).getPrice());
+        assertEquals(first.plusSeconds(7200), prices.get(2).getTimestamp());
+    }
+
+    @Test
+    void testReloadReplacesPricesInsteadOfDuplicatingRows() {
+        Instant timestamp = Instant.parse("2022-01-01T04:00:00Z");
+
+        try (CryptoPriceJdbcRepository.Batch batch = cryptoPriceJdbcRepository.openBatch("ETH")) {
+            batch.add(timestamp.toEpochMilli(), 3715.32);
+        }
+        try (CryptoPriceJdbcRepository.Batch batch = cryptoPriceJdbcRepository.openBatch("ETH")) {
+            batch.add(timestamp.toEpochMilli(), 3720.0);
+        }
+
+        List<CryptoPrice> prices = cryptoPriceRepository.findBySymbol("ETH", Sort.by("timestamp").ascending());
+        assertEquals(1, prices.size());
+        assertEquals(3720.0, prices.get(0).getPrice());
+    }
+
+    @Test
+    void testStreamPricesReadsRangeInTimestampOrder() {
+        Instant first = Instant.parse("2022-01-01T04:00:00Z");
+        try (CryptoPriceJdbcRepository.Batch batch = cryptoPriceJdbcRepository.openBatch("XRP")) {
+            batch.add(first.plusSeconds(7200).toEpochMilli(), 0.83);
+            batch.add(first.toEpochMilli(), 0.82);
+            batch.add(first.plusSeconds(3600).toEpochMilli(), 0.85);
+        }
+
+        List<Long> timestamps = new ArrayList<>();
+        long all = cryptoPriceJdbcRepository.streamPrices("XRP", null, null, (timestamp, price) -> timestamps.add(timestamp));
+        long ranged = cryptoPriceJdbcRepository.streamPrices("XRP", first.plusSeconds(3600), first.plusSeconds(7200), (timestamp, price) -> {});
+
+        assertEquals(3, all);
+        assertEquals(List.of(first.toEpochMilli(), first.plusSeconds(3600).toEpochMilli(), first.plusSeconds(7200).toEpochMilli()), timestamps);
+        assertEquals(1, ranged);
+    }
+
+    @Test
+    void testCommittedRowsAreHandedOutAfterEachFlush() {
+        List<Double> committed = new ArrayList<>();
+
+        try (CryptoPriceJdbcRepository.Batch batch = cryptoPriceJdbcRepository.openBatch("LTC")) {
+            batch.onCommit((timestamp, price) -> committed.add(price));
+            batch.add(1000, 150.1);
+            assertEquals(List.of(), committed);
+            batch.add(2000, 150.2);
+            assertEquals(List.of(150.1, 150.2), committed);
+            batch.add(3000, 150.3);
+        }
+
+        assertEquals(List.of(150.1, 150.2, 150.3), committed);
+    }
+}
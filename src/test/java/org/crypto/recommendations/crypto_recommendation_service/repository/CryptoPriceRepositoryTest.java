@@ -1,10 +1,12 @@
 package org.crypto.recommendations.crypto_recommendation_service.repository;
 
+import org.crypto.recommendations.crypto_recommendation_service.config.CryptoConfig;
 import org.crypto.recommendations.crypto_recommendation_service.model.CryptoPrice;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 
@@ -13,14 +15,23 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
+@Import({SymbolDictionary.class, CryptoConfig.class})
 class CryptoPriceRepositoryTest {
 
     @Autowired
     private CryptoPriceRepository cryptoPriceRepository;
 
+    @Autowired
+    private SymbolDictionary symbolDictionary;
+
+    @Autowired
+    private CryptoConfig cryptoConfig;
+
     private CryptoPrice btcPrice1;
     private CryptoPrice btcPrice2;
     private CryptoPrice ethPrice1;
@@ -86,4 +97,31 @@ class CryptoPriceRepositoryTest {
         assertTrue(avgPrice.isPresent());
         assertEquals(32500.0, avgPrice.get());
     }
+
+    @Test
+    void testSymbolsAreStoredOnceAndResolvedThroughTheDictionary() {
+        assertEquals(List.of("BTC", "ETH"), cryptoPriceRepository.findDistinctSymbols().stream().sorted().toList());
+        assertEquals("ETH", cryptoPriceRepository.findLatestBySymbol("ETH").orElseThrow().getSymbol());
+
+        // Looking up a symbol that is not configured matches nothing and adds no key for it
+        assertTrue(cryptoPriceRepository.findBySymbol("NOPE", Sort.by("timestamp")).isEmpty());
+        assertFalse(cryptoPriceRepository.existsBySymbol("NOPE"));
+        assertNull(symbolDictionary.findId("NOPE"));
+        assertEquals(symbolDictionary.findId("BTC"), symbolDictionary.idFor("BTC"));
+    }
+
+    @Test
+    void testReadingARegisteredSymbolWithoutAKeyNeverAssignsOne() {
+        cryptoConfig.register("SOL", "SOL");
+
+        // Reads bind UNKNOWN_ID instead of adding a key on their own connection
+        assertTrue(cryptoPriceRepository.findBySymbol("SOL", Sort.by("timestamp")).isEmpty());
+        assertEquals(SymbolDictionary.UNKNOWN_ID, symbolDictionary.resolve("SOL"));
+        assertNull(symbolDictionary.findId("SOL"));
+
+        // Registration adds it in the caller's transaction, and it is only cached once that commits
+        int id = symbolDictionary.idFor("SOL");
+        assertEquals(id, symbolDictionary.findId("SOL"));
+        assertEquals(SymbolDictionary.UNKNOWN_ID, symbolDictionary.resolve("SOL"));
+    }
 }
@@ -0,0 +1,55 @@
+package org.crypto.recommendations.crypto_recommendation_service.repository;
+
+import org.crypto.recommendations.crypto_recommendation_service.config.CryptoConfig;
+import org.crypto.recommendations.crypto_recommendation_service.model.IngestCheckpoint;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import({IngestCheckpointRepository.class, CryptoPriceJdbcRepository.class, SymbolDictionary.class, CryptoConfig.class})
+@TestPropertySource(properties = "crypto.ingest.batch-size=2")
+class IngestCheckpointRepositoryTest {
+
+    @Autowired
+    private IngestCheckpointRepository ingestCheckpointRepository;
+
+    @Autowired
+    private CryptoPriceJdbcRepository cryptoPriceJdbcRepository;
+
+    @Test
+    void testCheckpointIsReplacedOnEachSave() {
+        Instant updatedAt = Instant.parse("2022-01-01T04:00:00Z");
+        IngestCheckpoint first = new IngestCheckpoint("BTC", "BTC", 64, 3, 123456789L, 20, updatedAt);
+        IngestCheckpoint second = new IngestCheckpoint("BTC", "BTC", 128, 6, 987654321L, 21, updatedAt.plusSeconds(60));
+
+        assertEquals(Optional.empty(), ingestCheckpointRepository.findBySymbol("BTC"));
+        ingestCheckpointRepository.save(first);
+        ingestCheckpointRepository.save(second);
+
+        assertEquals(Optional.of(second), ingestCheckpointRepository.findBySymbol("BTC"));
+        assertEquals(Optional.empty(), ingestCheckpointRepository.findBySymbol("ETH"));
+    }
+
+    @Test
+    void testCheckpointIsSavedWithEachFlushedBatch() {
+        long[] offset = {0};
+        try (CryptoPriceJdbcRepository.Batch batch = cryptoPriceJdbcRepository.openBatch("ETH")) {
+            batch.onFlush(() -> ingestCheckpointRepository.save(
+                    new IngestCheckpoint("ETH", "ETH", ++offset[0], offset[0], 0, 1, Instant.EPOCH)));
+            batch.add(1000, 1.5);
+            batch.add(2000, 2.5);
+            assertEquals(1, ingestCheckpointRepository.findBySymbol("ETH").orElseThrow().getByteOffset());
+            batch.add(3000, 3.5);
+        }
+
+        assertEquals(2, ingestCheckpointRepository.findBySymbol("ETH").orElseThrow().getByteOffset());
+    }
+}
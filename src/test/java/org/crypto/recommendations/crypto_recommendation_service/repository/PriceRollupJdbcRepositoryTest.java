@@ -0,0 +1,55 @@
+package org.crypto.recommendations.crypto_recommendation_service.repository;
+
+import org.crypto.recommendations.crypto_recommendation_service.config.CryptoConfig;
+import org.crypto.recommendations.crypto_recommendation_service.model.PriceRollup;
+import org.crypto.recommendations.crypto_recommendation_service.model.RollupGranularity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import({PriceRollupJdbcRepository.class, SymbolDictionary.class, CryptoConfig.class})
+@TestPropertySource(properties = "crypto.ingest.batch-size=2")
+class PriceRollupJdbcRepositoryTest {
+
+    private static final Instant DAY = Instant.parse("2022-01-03T00:00:00Z");
+
+    @Autowired
+    private PriceRollupJdbcRepository priceRollupJdbcRepository;
+
+    @Autowired
+    private PriceRollupRepository priceRollupRepository;
+
+    @Test
+    void testUpsertReplacesExistingBarsInsteadOfInsertingDuplicates() {
+        priceRollupJdbcRepository.upsertAll(List.of(
+                new PriceRollup("BTC", RollupGranularity.HOURLY, DAY, 1.0, 1.0, 1.0, 1.0, 1L),
+                new PriceRollup("BTC", RollupGranularity.HOURLY, DAY.plusSeconds(3600), 2.0, 2.0, 2.0, 2.0, 1L),
+                new PriceRollup("BTC", RollupGranularity.DAILY, DAY, 1.0, 2.0, 1.0, 2.0, 2L)));
+
+        // A second refresh of the same buckets, spanning more than one JDBC batch
+        priceRollupJdbcRepository.upsertAll(List.of(
+                new PriceRollup("BTC", RollupGranularity.HOURLY, DAY, 100.0, 120.0, 100.0, 120.0, 2L),
+                new PriceRollup("BTC", RollupGranularity.HOURLY, DAY.plusSeconds(3600), 90.0, 95.0, 90.0, 95.0, 2L),
+                new PriceRollup("BTC", RollupGranularity.DAILY, DAY, 100.0, 120.0, 90.0, 95.0, 4L)));
+
+        List<PriceRollup> hourly = priceRollupRepository.findBySymbolAndGranularityAndBucketStartBetween("BTC",
+                RollupGranularity.HOURLY, DAY, DAY.plusSeconds(3600), Sort.by("bucketStart"));
+        assertEquals(2, hourly.size());
+        assertEquals(120.0, hourly.get(0).getHigh());
+        assertEquals(95.0, hourly.get(1).getClose());
+
+        List<PriceRollup> daily = priceRollupRepository.findByGranularityAndBucketStart(RollupGranularity.DAILY, DAY);
+        assertEquals(1, daily.size());
+        assertEquals(90.0, daily.get(0).getLow());
+        assertEquals(4L, daily.get(0).getCount());
+    }
+}
@@ -0,0 +1,63 @@
+package org.crypto.recommendations.crypto_recommendation_service.service;
+
+import org.crypto.recommendations.crypto_recommendation_service.config.CryptoConfig;
+import org.crypto.recommendations.crypto_recommendation_service.model.LoadStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkLoadServiceTest {
+
+    @Mock
+    private CryptoConfig cryptoConfig;
+
+    @Mock
+    private CryptoService cryptoService;
+
+    private ExecutorService executor;
+    private BulkLoadService bulkLoadService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        executor = Executors.newFixedThreadPool(2);
+        bulkLoadService = new BulkLoadService(cryptoConfig, cryptoService, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldLoadEverySymbolAndIsolateFailures() {
+        when(cryptoConfig.getSymbols()).thenReturn(Map.of("BTC", "BTC", "ETH", "ETH", "XRP", "XRP"));
+        when(cryptoService.loadCryptoData("BTC")).thenReturn(100L);
+        when(cryptoService.loadCryptoData("ETH")).thenThrow(new IllegalStateException("CSV file not found"));
+        when(cryptoService.loadCryptoData("XRP")).thenReturn(80L);
+
+        Map<String, LoadStatus> result = bulkLoadService.loadAll();
+
+        assertEquals(3, result.size());
+        assertEquals(LoadStatus.State.COMPLETED, result.get("BTC").getState());
+        assertEquals(100L, result.get("BTC").getRows());
+        assertEquals(LoadStatus.State.FAILED, result.get("ETH").getState());
+        assertEquals("CSV file not found", result.get("ETH").getError());
+        assertEquals(LoadStatus.State.COMPLETED, result.get("XRP").getState());
+        assertNotNull(result.get("XRP").getFinishedAt());
+        verify(cryptoService, times(1)).loadCryptoData("XRP");
+        assertEquals(result, bulkLoadService.getProgress());
+    }
+}
@@ -1,23 +1,43 @@
 package org.crypto.recommendations.crypto_recommendation_service.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.crypto.recommendations.crypto_recommendation_service.config.CryptoConfig;
 import org.crypto.recommendations.crypto_recommendation_service.model.CryptoPrice;
+import org.crypto.recommendations.crypto_recommendation_service.model.DetailedStatistics;
+import org.crypto.recommendations.crypto_recommendation_service.model.IngestCheckpoint;
+import org.crypto.recommendations.crypto_recommendation_service.model.LatestPrice;
+import org.crypto.recommendations.crypto_recommendation_service.model.NormalizedRange;
+import org.crypto.recommendations.crypto_recommendation_service.model.PriceHistory;
+import org.crypto.recommendations.crypto_recommendation_service.model.PriceResolution;
+import org.crypto.recommendations.crypto_recommendation_service.model.PriceRollup;
+import org.crypto.recommendations.crypto_recommendation_service.model.RollupGranularity;
+import org.crypto.recommendations.crypto_recommendation_service.repository.CryptoPriceJdbcRepository;
 import org.crypto.recommendations.crypto_recommendation_service.repository.CryptoPriceRepository;
+import org.crypto.recommendations.crypto_recommendation_service.repository.IngestCheckpointRepository;
+import org.crypto.recommendations.crypto_recommendation_service.store.PriceStore;
+import org.crypto.recommendations.crypto_recommendation_service.store.PriceVisitor;
 import org.crypto.recommendations.crypto_recommendation_service.util.CSVLoader;
+import org.crypto.recommendations.crypto_recommendation_service.util.PriceFileCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,15 +50,47 @@ public class CryptoServiceTest {
     @Mock
     private CryptoPriceRepository cryptoPriceRepository;
 
+    @Mock
+    private CryptoPriceJdbcRepository cryptoPriceJdbcRepository;
+
+    @Mock
+    private CryptoPriceJdbcRepository.Batch batch;
+
+    @Mock
+    private IngestCheckpointRepository ingestCheckpointRepository;
+
     @Mock
     private CSVLoader csvLoader;
 
+    @Mock
+    private RollupService rollupService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private PriceStore priceStore = new PriceStore();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private CryptoService cryptoService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(cryptoPriceJdbcRepository.openBatch(anyString())).thenReturn(batch);
+        when(batch.getWritten()).thenReturn(1L);
+        // Every row commits as soon as it is added
+        doAnswer(invocation -> {
+            PriceVisitor onCommit = invocation.getArgument(0);
+            doAnswer(add -> {
+                onCommit.visit(add.getArgument(0), add.getArgument(1));
+                return null;
+            }).when(batch).add(anyLong(), anyDouble());
+            return null;
+        }).when(batch).onCommit(any());
     }
 
     @Test
@@ -47,12 +99,93 @@ public class CryptoServiceTest {
         String fileName = "BTC_values.csv";
 
         when(cryptoConfig.getSymbols()).thenReturn(Map.of(symbol, fileName));
-        List<CryptoPrice> prices = List.of(new CryptoPrice(null, "BTC", 20000.0, Instant.now()));
-        when(csvLoader.loadPricesFromCSV(fileName)).thenReturn(prices);
+        Instant timestamp = Instant.now();
+        stubCsv(fileName, new CryptoPrice(null, "BTC", 20000.0, timestamp));
+
+        long rows = cryptoService.loadCryptoData(symbol);
+
+        assertEquals(1, rows);
+        verify(batch, times(1)).add(timestamp.toEpochMilli(), 20000.0);
+        verify(batch, times(1)).close();
+        verify(cryptoPriceRepository, never()).saveAll(any());
+        verify(rollupService, times(1)).refresh(symbol, timestamp.toEpochMilli(), timestamp.toEpochMilli());
+        verify(eventPublisher, times(1)).publishEvent(argThat((Object event) -> event instanceof PriceDataChangedEvent
+                && ((PriceDataChangedEvent) event).getSymbol().equals(symbol)
+                && ((PriceDataChangedEvent) event).getFromMillis() == timestamp.toEpochMilli()));
+        assertEquals(1.0, meterRegistry.get("crypto.ingest.rows").tags("symbol", symbol, "stage", "parsed").counter().count());
+        assertEquals(1.0, meterRegistry.get("crypto.ingest.rows").tags("symbol", symbol, "stage", "inserted").counter().count());
+    }
+
+    @Test
+    void testLoadCryptoData_keepsRowsOfFailedBatchOutOfStore() {
+        String symbol = "BTC";
+        when(cryptoConfig.getSymbols()).thenReturn(Map.of(symbol, symbol));
+        // The batch never commits: its only flush fails on close
+        doNothing().when(batch).onCommit(any());
+        doThrow(new IllegalStateException("connection lost")).when(batch).close();
+        stubCsv(symbol, new CryptoPrice(null, symbol, 46813.21, Instant.ofEpochMilli(1641009600000L)));
+
+        assertThrows(IllegalStateException.class, () -> cryptoService.loadCryptoData(symbol));
+
+        assertNull(priceStore.aggregate(symbol));
+        verify(rollupService, never()).refresh(anyString(), anyLong(), anyLong());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testLoadCryptoData_resumesFromCheckpointOfUnchangedFile() {
+        String symbol = "BTC";
+        when(cryptoConfig.getSymbols()).thenReturn(Map.of(symbol, symbol));
+        when(ingestCheckpointRepository.findBySymbol(symbol)).thenReturn(Optional.of(
+                new IngestCheckpoint(symbol, symbol, 4096L, 120L, 42L, 30, Instant.now())));
+        when(csvLoader.checksumOf(symbol, 4096L, 30)).thenReturn(OptionalLong.of(42L));
+        stubCsv(symbol);
+
+        cryptoService.loadCryptoData(symbol);
+
+        verify(csvLoader).streamPricesFromCSV(eq(symbol),
+                argThat(cursor -> cursor.getOffset() == 4096L && cursor.getLineNumber() == 120L), any());
+        verify(batch).onFlush(any());
+    }
+
+    @Test
+    void testLoadCryptoData_resumedLoadAfterRestartKeepsEarlierRows() {
+        String symbol = "BTC";
+        Instant start = Instant.parse("2022-01-01T00:00:00Z");
+        when(cryptoConfig.getSymbols()).thenReturn(Map.of(symbol, symbol));
+        // The previous process committed the first two rows and the checkpoint after them, then stopped
+        when(cryptoPriceRepository.findBySymbol(symbol, Sort.by(Sort.Direction.ASC, "timestamp"))).thenReturn(List.of(
+                new CryptoPrice(null, symbol, 46000.0, start),
+                new CryptoPrice(null, symbol, 48000.0, start.plusSeconds(3600))));
+        when(ingestCheckpointRepository.findBySymbol(symbol)).thenReturn(Optional.of(
+                new IngestCheckpoint(symbol, symbol, 80L, 3L, 42L, 30, Instant.now())));
+        when(csvLoader.checksumOf(symbol, 80L, 30)).thenReturn(OptionalLong.of(42L));
+        stubCsv(symbol,
+                new CryptoPrice(null, symbol, 47000.0, start.plusSeconds(7200)),
+                new CryptoPrice(null, symbol, 47500.0, start.plusSeconds(10800)));
+
+        assertEquals(2, cryptoService.loadCryptoData(symbol));
+
+        assertEquals(4, priceStore.aggregate(symbol).getCount());
+        Map<String, Double> stats = cryptoService.getCryptoStatistics(symbol);
+        assertEquals(46000.0, stats.get("min"));
+        assertEquals(48000.0, stats.get("max"));
+        assertEquals((double) start.getEpochSecond(), stats.get("oldest"));
+    }
+
+    @Test
+    void testLoadCryptoData_startsOverWhenFileWasReplaced() {
+        String symbol = "BTC";
+        when(cryptoConfig.getSymbols()).thenReturn(Map.of(symbol, symbol));
+        when(ingestCheckpointRepository.findBySymbol(symbol)).thenReturn(Optional.of(
+                new IngestCheckpoint(symbol, symbol, 4096L, 120L, 42L, 30, Instant.now())));
+        when(csvLoader.checksumOf(symbol, 4096L, 30)).thenReturn(OptionalLong.of(7L));
+        stubCsv(symbol);
 
         cryptoService.loadCryptoData(symbol);
 
-        verify(cryptoPriceRepository, times(1)).saveAll(prices);
+        verify(csvLoader).streamPricesFromCSV(eq(symbol),
+                argThat(cursor -> cursor.getOffset() == 0 && cursor.getLineNumber() == 0), any());
     }
 
     @Test
@@ -64,7 +197,7 @@ public class CryptoServiceTest {
                 cryptoService.loadCryptoData(invalidSymbol));
 
         assertTrue(exception.getMessage().contains("Invalid cryptocurrency symbol"));
-        verifyNoInteractions(csvLoader, cryptoPriceRepository);
+        verifyNoInteractions(csvLoader, cryptoPriceRepository, cryptoPriceJdbcRepository);
     }
 
     @Test
@@ -113,42 +246,243 @@ public class CryptoServiceTest {
         assertEquals(0.0, stats.get("newest"));
     }
 
+    @Test
+    void testGetCryptoStatistics_servedFromStoreAfterLoad() {
+        String symbol = "BTC";
+        when(cryptoConfig.getSymbols()).thenReturn(Map.of(symbol, symbol));
+        stubCsv(symbol,
+                new CryptoPrice(null, symbol, 46813.21, Instant.ofEpochMilli(1641009600000L)),
+                new CryptoPrice(null, symbol, 46979.61, Instant.ofEpochMilli(1641020400000L)),
+                new CryptoPrice(null, symbol, 46021.55, Instant.ofEpochMilli(1641031200000L)));
+
+        cryptoService.loadCryptoData(symbol);
+        Map<String, Double> stats = cryptoService.getCryptoStatistics(symbol);
+
+        assertEquals(46021.55, stats.get("min"));
+        assertEquals(46979.61, stats.get("max"));
+        assertEquals(1641009600.0, stats.get("oldest"));
+        assertEquals(1641031200.0, stats.get("newest"));
+        // Only the load reads the database, to hydrate the store before appending
+        verify(cryptoPriceRepository, times(1)).findBySymbol(anyString(), any(Sort.class));
+    }
+
+    @Test
+    void testGetBatchStatistics_servedFromStoreInRequestOrder() {
+        Instant now = Instant.now();
+        when(cryptoConfig.getSymbols()).thenReturn(Map.of("BTC", "BTC", "ETH", "ETH", "XRP", "XRP"));
+        priceStore.putAll("BTC", List.of(
+                new CryptoPrice(null, "BTC", 30000.0, now.minusSeconds(60)),
+                new CryptoPrice(null, "BTC", 33000.0, now)));
+        priceStore.putAll("ETH", List.of(
+                new CryptoPrice(null, "ETH", 1000.0, now.minusSeconds(60)),
+                new CryptoPrice(null, "ETH", 1500.0, now)));
+        when(cryptoPriceRepository.findDistinctSymbols()).thenReturn(List.of("BTC", "ETH"));
+
+        Map<String, Map<String, Double>> stats = cryptoService.getBatchStatistics(List.of("XRP", "ETH", "BTC"));
+
+        assertEquals(List.of("XRP", "ETH", "BTC"), new ArrayList<>(stats.keySet()));
+        assertEquals(1000.0, stats.get("ETH").get("min"));
+        assertEquals(1500.0, stats.get("ETH").get("max"));
+        assertEquals(0.5, stats.get("ETH").get("normalizedRange"), 1e-9);
+        assertEquals(0.1, stats.get("BTC").get("normalizedRange"), 1e-9);
+        assertEquals(0.0, stats.get("XRP").get("max"));
+        assertEquals(List.of("BTC", "ETH", "XRP"), new ArrayList<>(cryptoService.getBatchStatistics(null).keySet()));
+        verify(cryptoPriceRepository, times(1)).findDistinctSymbols();
+        verify(cryptoPriceRepository, never()).findBySymbol(anyString(), any(Sort.class));
+    }
+
+    @Test
+    void testGetBatchStatistics_invalidSymbol() {
+        when(cryptoConfig.getSymbols()).thenReturn(Map.of("BTC", "BTC"));
+
+        assertThrows(IllegalArgumentException.class, () -> cryptoService.getBatchStatistics(List.of("BTC", "NOPE")));
+        verifyNoInteractions(cryptoPriceRepository);
+    }
+
+    @Test
+    void testGetDetailedStatistics_overRange() {
+        Instant start = Instant.parse("2022-01-01T00:00:00Z");
+        priceStore.putAll("BTC", List.of(
+                new CryptoPrice(null, "BTC", 100.0, start),
+                new CryptoPrice(null, "BTC", 110.0, start.plusSeconds(3600)),
+                new CryptoPrice(null, "BTC", 99.0, start.plusSeconds(7200)),
+                new CryptoPrice(null, "BTC", 500.0, start.plusSeconds(10800))));
+
+        DetailedStatistics stats = cryptoService.getDetailedStatistics("BTC", start, start.plusSeconds(10800)).orElseThrow();
+
+        assertEquals(3, stats.getCount());
+        assertEquals(99.0, stats.getMin());
+        assertEquals(110.0, stats.getMax());
+        assertEquals(103.0, stats.getMean(), 1e-9);
+        assertEquals(37.0, stats.getVariance(), 1e-9);
+        assertEquals(Math.sqrt(37.0), stats.getStddev(), 1e-9);
+        double up = Math.log(1.1);
+        double down = Math.log(0.9);
+        assertEquals(Math.abs(up - down) / Math.sqrt(2), stats.getVolatility(), 1e-12);
+        assertEquals(100.0, stats.getP50(), 5.0);
+
+        // A range without ticks reports its count only
+        DetailedStatistics empty = cryptoService.getDetailedStatistics("BTC", start.minusSeconds(60), start).orElseThrow();
+        assertEquals(0, empty.getCount());
+        assertNull(empty.getMean());
+        assertThrows(IllegalArgumentException.class, () -> cryptoService.getDetailedStatistics("BTC", start, start));
+    }
+
+    @Test
+    void testGetDetailedStatistics_unknownSymbol() {
+        when(cryptoPriceRepository.findBySymbol("NOPE", Sort.by(Sort.Direction.ASC, "timestamp"))).thenReturn(Collections.emptyList());
+
+        assertTrue(cryptoService.getDetailedStatistics("NOPE", null, null).isEmpty());
+    }
+
+    @Test
+    void testGetNormalizedRanges_sortedAndPaged() {
+        Instant now = Instant.now();
+        priceStore.putAll("BTC", List.of(
+                new CryptoPrice(null, "BTC", 30000.0, now.minusSeconds(60)),
+                new CryptoPrice(null, "BTC", 33000.0, now)));
+        priceStore.putAll("ETH", List.of(
+                new CryptoPrice(null, "ETH", 1000.0, now.minusSeconds(60)),
+                new CryptoPrice(null, "ETH", 1500.0, now)));
+        priceStore.putAll("DOGE", List.of(
+                new CryptoPrice(null, "DOGE", 0.1, now.minusSeconds(60)),
+                new CryptoPrice(null, "DOGE", 0.12, now)));
+        when(cryptoPriceRepository.findDistinctSymbols()).thenReturn(List.of("BTC", "ETH", "DOGE"));
+
+        assertEquals(List.of("ETH", "DOGE", "BTC"), cryptoService.getCryptosSortedByNormalizedRange());
+
+        List<NormalizedRange> page = cryptoService.getNormalizedRanges(1, 1);
+        assertEquals(1, page.size());
+        assertEquals("DOGE", page.get(0).getSymbol());
+        assertEquals(0.2, page.get(0).getNormalizedRange(), 1e-9);
+
+        // The database is consulted once to discover symbols; every later call is served from memory
+        verify(cryptoPriceRepository, times(1)).findDistinctSymbols();
+        verify(cryptoPriceRepository, never()).findAll();
+        verify(cryptoPriceRepository, never()).findBySymbol(anyString(), any(Sort.class));
+    }
+
+    @Test
+    void testGetNormalizedRanges_hydratesSymbolsOnlyInDatabase() {
+        Instant now = Instant.now();
+        when(cryptoPriceRepository.findDistinctSymbols()).thenReturn(List.of("LTC"));
+        when(cryptoPriceRepository.findBySymbol("LTC", Sort.by(Sort.Direction.ASC, "timestamp"))).thenReturn(List.of(
+                new CryptoPrice(1L, "LTC", 100.0, now.minusSeconds(60)),
+                new CryptoPrice(2L, "LTC", 150.0, now)));
+
+        List<NormalizedRange> ranges = cryptoService.getNormalizedRanges(0, null);
+
+        assertEquals(List.of(new NormalizedRange("LTC", 0.5)), ranges);
+    }
+
+    @Test
+    void testGetLatestPrice_servedFromStoreAndRefreshedByNewerTick() {
+        Instant now = Instant.now();
+        priceStore.putAll("BTC", List.of(
+                new CryptoPrice(null, "BTC", 30000.0, now.minusSeconds(60)),
+                new CryptoPrice(null, "BTC", 33000.0, now)));
+
+        LatestPrice latest = cryptoService.getLatestPrice("BTC").orElseThrow();
+        assertEquals(33000.0, latest.getPrice());
+        assertSame(latest, cryptoService.getLatestPrice("BTC").orElseThrow());
+
+        priceStore.getOrCreate("BTC").put(now.plusSeconds(60).toEpochMilli(), 34000.0);
+        assertEquals(34000.0, cryptoService.getLatestPrice("BTC").orElseThrow().getPrice());
+        verify(cryptoPriceRepository, never()).findBySymbol(anyString(), any(Sort.class));
+    }
+
+    @Test
+    void testGetLatestPrice_unknownSymbol() {
+        when(cryptoPriceRepository.findBySymbol("NOPE", Sort.by(Sort.Direction.ASC, "timestamp"))).thenReturn(Collections.emptyList());
+
+        assertTrue(cryptoService.getLatestPrice("NOPE").isEmpty());
+    }
+
+    @Test
+    void testGetPriceHistory_autoResolution() {
+        long start = Instant.parse("2022-01-01T00:00:00Z").toEpochMilli();
+        List<CryptoPrice> prices = new ArrayList<>();
+        for (int i = 0; i < 48; i++) {
+            prices.add(new CryptoPrice(null, "BTC", 100.0 + i, Instant.ofEpochMilli(start + i * 3_600_000L)));
+        }
+        priceStore.putAll("BTC", prices);
+        PriceRollup day1 = dailyRollup("BTC", Instant.parse("2022-01-01T00:00:00Z"), 100.0, 123.0);
+        PriceRollup day2 = dailyRollup("BTC", Instant.parse("2022-01-02T00:00:00Z"), 124.0, 147.0);
+        when(rollupService.findRollups("BTC", RollupGranularity.DAILY,
+                Instant.parse("2022-01-01T00:00:00Z"), Instant.parse("2022-01-02T00:00:00Z"))).thenReturn(List.of(day1, day2));
+
+        // Everything fits: raw ticks
+        PriceHistory raw = cryptoService.getPriceHistory("BTC", null, null, PriceResolution.AUTO, 100).orElseThrow();
+        assertEquals(PriceResolution.RAW, raw.getResolution());
+        assertEquals(48, raw.getPoints().size());
+        assertNull(raw.getBars());
+
+        // 48 ticks and 48 hourly buckets do not fit in 10 points, 2 daily bars do
+        PriceHistory daily = cryptoService.getPriceHistory("BTC", null, null, PriceResolution.AUTO, 10).orElseThrow();
+        assertEquals(PriceResolution.DAY, daily.getResolution());
+        assertEquals(2, daily.getBars().size());
+        assertEquals(147.0, daily.getBars().get(1).getHigh());
+
+        PriceHistory lttb = cryptoService.getPriceHistory("BTC", Instant.ofEpochMilli(start), Instant.ofEpochMilli(start + 24 * 3_600_000L),
+                PriceResolution.LTTB, 5).orElseThrow();
+        assertEquals(5, lttb.getPoints().size());
+        assertEquals(Instant.ofEpochMilli(start + 23 * 3_600_000L), lttb.getPoints().get(4).getTimestamp());
+    }
+
+    @Test
+    void testGetPriceHistory_rejectsRangesThatDoNotFit() {
+        long start = Instant.parse("2022-01-01T00:00:00Z").toEpochMilli();
+        List<CryptoPrice> prices = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            prices.add(new CryptoPrice(null, "BTC", 100.0 + i, Instant.ofEpochMilli(start + i * 3_600_000L)));
+        }
+        priceStore.putAll("BTC", prices);
+
+        assertThrows(IllegalArgumentException.class, () -> cryptoService.getPriceHistory("BTC", null, null, PriceResolution.RAW, 5));
+        assertThrows(IllegalArgumentException.class, () -> cryptoService.getPriceHistory("BTC", null, null, PriceResolution.HOUR, 5));
+        assertThrows(IllegalArgumentException.class, () -> cryptoService.getPriceHistory("BTC", null, null, PriceResolution.RAW, 2));
+        assertThrows(IllegalArgumentException.class, () -> cryptoService.getPriceHistory("BTC",
+                Instant.ofEpochMilli(start), Instant.ofEpochMilli(start), PriceResolution.RAW, 5));
+    }
+
+    @Test
+    void testGetNormalizedRanges_invalidPaging() {
+        assertThrows(IllegalArgumentException.class, () -> cryptoService.getNormalizedRanges(-1, null));
+        assertThrows(IllegalArgumentException.class, () -> cryptoService.getNormalizedRanges(0, 0));
+    }
+
     @Test
     void testGetCryptoWithHighestRangeForDay_validData() {
         String date = "2023-01-01";
         Instant start = LocalDate.parse(date).atStartOfDay(ZoneOffset.UTC).toInstant();
-        Instant end = start.plusSeconds(86400);
-
-        List<CryptoPrice> prices = Arrays.asList(
-                new CryptoPrice(1L, "BTC", 30000.0, start.plusSeconds(3600)),
-                new CryptoPrice(2L, "BTC", 35000.0, start.plusSeconds(7200)),
-                new CryptoPrice(3L, "ETH", 1000.0, start.plusSeconds(3600)),
-                new CryptoPrice(4L, "ETH", 1200.0, start.plusSeconds(7200)),
-                new CryptoPrice(5L, "DOGE", 0.1, start.plusSeconds(3600)),
-                new CryptoPrice(6L, "DOGE", 0.11, start.plusSeconds(7200))
+
+        List<PriceRollup> rollups = Arrays.asList(
+                dailyRollup("BTC", start, 30000.0, 35000.0),
+                dailyRollup("ETH", start, 1000.0, 1200.0),
+                dailyRollup("DOGE", start, 0.1, 0.11)
         );
 
-        when(cryptoPriceRepository.findByTimestampBetween(start, end)).thenReturn(prices);
+        when(rollupService.findRollups(RollupGranularity.DAILY, start)).thenReturn(rollups);
 
         String result = cryptoService.getCryptoWithHighestRangeForDay(date);
-        assertEquals("ETH", result); // BTC has the highest normalized range (35000 - 30000) / 30000
+        assertEquals("ETH", result); // ETH has the highest normalized range (1200 - 1000) / 1000
 
-        verify(cryptoPriceRepository, times(1)).findByTimestampBetween(start, end);
+        verify(rollupService, times(1)).findRollups(RollupGranularity.DAILY, start);
+        verify(cryptoPriceRepository, never()).findByTimestampBetween(any(), any());
     }
 
     @Test
     void testGetCryptoWithHighestRangeForDay_noDataForDate() {
         String date = "2023-01-01";
         Instant start = LocalDate.parse(date).atStartOfDay(ZoneOffset.UTC).toInstant();
-        Instant end = start.plusSeconds(86400);
 
-        when(cryptoPriceRepository.findByTimestampBetween(start, end)).thenReturn(Collections.emptyList());
+        when(rollupService.findRollups(RollupGranularity.DAILY, start)).thenReturn(Collections.emptyList());
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
                 cryptoService.getCryptoWithHighestRangeForDay(date));
 
         assertEquals("No data available for the given date: 2023-01-01", exception.getMessage());
-        verify(cryptoPriceRepository, times(1)).findByTimestampBetween(start, end);
+        verify(rollupService, times(1)).findRollups(RollupGranularity.DAILY, start);
     }
 
     @Test
@@ -159,26 +493,38 @@ public class CryptoServiceTest {
                 cryptoService.getCryptoWithHighestRangeForDay(invalidDate));
 
         assertEquals("Invalid date format. Expected format: yyyy-MM-dd.", exception.getMessage());
-        verify(cryptoPriceRepository, never()).findByTimestampBetween(any(), any());
+        verify(rollupService, never()).findRollups(any(), any());
     }
 
     @Test
     void testGetCryptoWithHighestRangeForDay_minValueZeroFiltered() {
         String date = "2023-01-01";
         Instant start = LocalDate.parse(date).atStartOfDay(ZoneOffset.UTC).toInstant();
-        Instant end = start.plusSeconds(86400);
 
-        List<CryptoPrice> prices = Arrays.asList(
-                new CryptoPrice(1L, "BTC", 0.0, start.plusSeconds(3600)),  // Min price is 0, should be ignored
-                new CryptoPrice(2L, "ETH", 1000.0, start.plusSeconds(3600)),
-                new CryptoPrice(3L, "ETH", 1200.0, start.plusSeconds(7200))
+        List<PriceRollup> rollups = Arrays.asList(
+                dailyRollup("BTC", start, 0.0, 0.0),  // Min price is 0, should be ignored
+                dailyRollup("ETH", start, 1000.0, 1200.0)
         );
 
-        when(cryptoPriceRepository.findByTimestampBetween(start, end)).thenReturn(prices);
+        when(rollupService.findRollups(RollupGranularity.DAILY, start)).thenReturn(rollups);
 
         String result = cryptoService.getCryptoWithHighestRangeForDay(date);
         assertEquals("ETH", result); // Only ETH is valid
 
-        verify(cryptoPriceRepository, times(1)).findByTimestampBetween(start, end);
+        verify(rollupService, times(1)).findRollups(RollupGranularity.DAILY, start);
+    }
+
+    private void stubCsv(String fileName, CryptoPrice... prices) {
+        when(csvLoader.streamPricesFromCSV(eq(fileName), any(PriceFileCursor.class), any())).thenAnswer(invocation -> {
+            PriceVisitor visitor = invocation.getArgument(2);
+            for (CryptoPrice price : prices) {
+                visitor.visit(price.getTimestamp().toEpochMilli(), price.getPrice());
+            }
+            return (long) prices.length;
+        });
+    }
+
+    private static PriceRollup dailyRollup(String symbol, Instant day, double low, double high) {
+        return new PriceRollup(symbol, RollupGranularity.DAILY, day, low, high, low, high, 2L);
     }
 }
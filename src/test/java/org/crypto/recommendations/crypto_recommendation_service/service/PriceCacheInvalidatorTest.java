@@ -0,0 +1,49 @@
+package org.crypto.recommendations.crypto_recommendation_service.service;
+
+import org.crypto.recommendations.crypto_recommendation_service.config.CacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PriceCacheInvalidatorTest {
+
+    private CaffeineCacheManager cacheManager;
+    private PriceCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CaffeineCacheManager(
+                CacheConfig.STATISTICS_CACHE, CacheConfig.RANKINGS_CACHE, CacheConfig.HIGHEST_RANGE_CACHE);
+        invalidator = new PriceCacheInvalidator(cacheManager);
+    }
+
+    @Test
+    void shouldEvictOnlyEntriesDependingOnChangedSymbolAndDays() {
+        Cache statistics = cacheManager.getCache(CacheConfig.STATISTICS_CACHE);
+        Cache rankings = cacheManager.getCache(CacheConfig.RANKINGS_CACHE);
+        Cache highestRange = cacheManager.getCache(CacheConfig.HIGHEST_RANGE_CACHE);
+        statistics.put("BTC", "btc stats");
+        statistics.put("ETH", "eth stats");
+        rankings.put("all", List.of("ETH", "BTC"));
+        highestRange.put("2022-01-01", "ETH");
+        highestRange.put("2022-01-02", "BTC");
+        highestRange.put("2022-01-03", "XRP");
+
+        invalidator.onPriceDataChanged(new PriceDataChangedEvent("BTC",
+                Instant.parse("2022-01-01T22:00:00Z").toEpochMilli(), Instant.parse("2022-01-02T01:00:00Z").toEpochMilli()));
+
+        assertNull(statistics.get("BTC"));
+        assertNotNull(statistics.get("ETH"));
+        assertNull(rankings.get("all"));
+        assertNull(highestRange.get("2022-01-01"));
+        assertNull(highestRange.get("2022-01-02"));
+        assertNotNull(highestRange.get("2022-01-03"));
+    }
+}
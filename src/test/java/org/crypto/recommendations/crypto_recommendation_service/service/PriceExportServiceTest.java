@@ -0,0 +1,65 @@
+package org.crypto.recommendations.crypto_recommendation_service.service;
+
+import org.crypto.recommendations.crypto_recommendation_service.model.ExportFormat;
+import org.crypto.recommendations.crypto_recommendation_service.repository.CryptoPriceJdbcRepository;
+import org.crypto.recommendations.crypto_recommendation_service.repository.CryptoPriceRepository;
+import org.crypto.recommendations.crypto_recommendation_service.store.PriceVisitor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+
+class PriceExportServiceTest {
+
+    @Mock
+    private CryptoPriceRepository cryptoPriceRepository;
+
+    @Mock
+    private CryptoPriceJdbcRepository cryptoPriceJdbcRepository;
+
+    @InjectMocks
+    private PriceExportService priceExportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        doAnswer(invocation -> {
+            PriceVisitor visitor = invocation.getArgument(3);
+            visitor.visit(1641009600000L, 46813.21);
+            visitor.visit(1641013200000L, 46979.61);
+            return 2L;
+        }).when(cryptoPriceJdbcRepository).streamPrices(eq("BTC"), isNull(), isNull(), any(PriceVisitor.class));
+    }
+
+    @Test
+    void shouldWriteNdjsonLines() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = priceExportService.export("BTC", null, null, ExportFormat.NDJSON, output);
+
+        assertEquals(2, rows);
+        assertEquals("{\"symbol\":\"BTC\",\"price\":46813.21,\"timestamp\":\"2022-01-01T04:00:00Z\"}\n"
+                        + "{\"symbol\":\"BTC\",\"price\":46979.61,\"timestamp\":\"2022-01-01T05:00:00Z\"}\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldWriteCsvInPriceFileLayout() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        priceExportService.export("BTC", null, null, ExportFormat.CSV, output);
+
+        assertEquals("timestamp,symbol,price\n1641009600000,BTC,46813.21\n1641013200000,BTC,46979.61\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+}
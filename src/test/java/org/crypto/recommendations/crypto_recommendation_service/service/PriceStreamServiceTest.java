@@ -0,0 +1,244 @@
+package org.crypto.recommendations.crypto_recommendation_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.crypto.recommendations.crypto_recommendation_service.config.CryptoConfig;
+import org.crypto.recommendations.crypto_recommendation_service.model.LatestPrice;
+import org.crypto.recommendations.crypto_recommendation_service.model.NormalizedRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+class PriceStreamServiceTest {
+
+    @Mock
+    private CryptoConfig cryptoConfig;
+
+    @Mock
+    private CryptoService cryptoService;
+
+    private final List<Runnable> deliveries = new ArrayList<>();
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private boolean rejecting;
+    private long now;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PriceStreamService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(cryptoConfig.getSymbols()).thenReturn(Map.of("BTC", "BTC", "ETH", "ETH"));
+        when(cryptoService.getLatestPrices()).thenReturn(List.of(latest("BTC", 46813.21), latest("ETH", 3715.32)));
+        when(cryptoService.getCryptoStatistics("BTC")).thenReturn(Map.of("min", 46813.21));
+        when(cryptoService.getCryptoStatistics("ETH")).thenReturn(Map.of("min", 3715.32));
+        when(cryptoService.getNormalizedRanges(0, null)).thenReturn(List.of(new NormalizedRange("BTC", 0.1)));
+
+        // Deliveries run when the test says so, standing in for a client that reads slowly
+        Executor executor = task -> {
+            if (rejecting) {
+                throw new RejectedExecutionException("busy");
+            }
+            deliveries.add(task);
+        };
+        service = new PriceStreamService(cryptoConfig, cryptoService, executor, meterRegistry, 250, Long.MAX_VALUE, 0, 10000, 2) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+
+            @Override
+            long nanoTime() {
+                return now;
+            }
+        };
+    }
+
+    @Test
+    void shouldSendCurrentStateOfSubscribedSymbolsFirst() {
+        service.subscribe(List.of("ETH"));
+        deliver();
+
+        assertEquals(List.of("tick", "stats", "rankings"), emitters.get(0).names);
+        assertEquals(latest("ETH", 3715.32), emitters.get(0).data.get(0));
+    }
+
+    @Test
+    void shouldCoalesceChangesWhileClientIsBehind() {
+        service.subscribe(List.of("BTC"));
+        when(cryptoService.getLatestPrice("BTC")).thenReturn(Optional.of(latest("BTC", 46900.0)));
+        service.onPriceDataChanged(new PriceDataChangedEvent("BTC", 0, 1));
+        service.publish();
+        deliver();
+        emitters.get(0).clear();
+
+        when(cryptoService.getLatestPrice("BTC")).thenReturn(Optional.of(latest("BTC", 47000.0)));
+        service.onPriceDataChanged(new PriceDataChangedEvent("BTC", 0, 1));
+        service.onPriceDataChanged(new PriceDataChangedEvent("ETH", 0, 1));
+        service.publish();
+        when(cryptoService.getLatestPrice("BTC")).thenReturn(Optional.of(latest("BTC", 47100.0)));
+        when(cryptoService.getCryptoStatistics("BTC")).thenReturn(Map.of("min", 46000.0));
+        service.onPriceDataChanged(new PriceDataChangedEvent("BTC", 0, 1));
+        service.publish();
+        deliver();
+
+        // One tick and one stats event with the newest data; no ETH, and an unchanged ranking is not resent
+        assertEquals(List.of("tick", "stats"), emitters.get(0).names);
+        assertEquals(latest("BTC", 47100.0), emitters.get(0).data.get(0));
+
+        // Announcing the same data again sends nothing
+        emitters.get(0).clear();
+        service.onPriceDataChanged(new PriceDataChangedEvent("BTC", 0, 1));
+        service.publish();
+        deliver();
+        assertEquals(List.of(), emitters.get(0).names);
+    }
+
+    @Test
+    void shouldRejectUnknownSymbolsAndTooManySubscribers() {
+        assertThrows(IllegalArgumentException.class, () -> service.subscribe(List.of("NOPE")));
+
+        service.subscribe(null);
+        service.subscribe(Set.of("BTC"));
+        assertThrows(IllegalStateException.class, () -> service.subscribe(null));
+    }
+
+    @Test
+    void shouldDropSubscriberWhoseSendStalls() {
+        service.subscribe(List.of("BTC"));
+        service.subscribe(List.of("BTC"));
+        RecordingEmitter stalled = emitters.get(0);
+        RecordingEmitter healthy = emitters.get(1);
+        // While the first client's send is blocked, the send timeout passes and the next publish runs
+        stalled.onSend = () -> {
+            stalled.onSend = null;
+            now += TimeUnit.SECONDS.toNanos(11);
+            service.publish();
+        };
+        deliver();
+
+        assertEquals(List.of("tick"), stalled.names);
+        assertTrue(stalled.completed);
+        healthy.clear();
+
+        when(cryptoService.getLatestPrice("BTC")).thenReturn(Optional.of(latest("BTC", 47000.0)));
+        service.onPriceDataChanged(new PriceDataChangedEvent("BTC", 0, 1));
+        service.publish();
+        deliver();
+
+        assertEquals(List.of("tick"), stalled.names);
+        assertEquals(latest("BTC", 47000.0), healthy.data.get(0));
+        assertEquals(1.0, meterRegistry.get("crypto.stream.dropped").counter().count());
+    }
+
+    @Test
+    void shouldFreeTheSlotOfAStreamThatEnds() {
+        service.subscribe(List.of("BTC"));
+        service.subscribe(List.of("BTC"));
+        RecordingEmitter stalled = emitters.get(0);
+        stalled.onSend = () -> {
+            stalled.onSend = null;
+            now += TimeUnit.SECONDS.toNanos(11);
+            service.publish();
+        };
+        deliver();
+
+        // The dropped stream's slot is taken again, and only once
+        service.subscribe(List.of("ETH"));
+        assertThrows(IllegalStateException.class, () -> service.subscribe(null));
+        assertEquals(2.0, meterRegistry.get("crypto.stream.subscribers").gauge().value());
+    }
+
+    @Test
+    void shouldDeliverAgainAfterASendFailsUnexpectedly() {
+        service.subscribe(List.of("ETH"));
+        emitters.get(0).onSend = () -> {
+            emitters.get(0).onSend = null;
+            throw new IllegalArgumentException("cannot write event");
+        };
+        assertThrows(IllegalArgumentException.class, this::deliver);
+
+        when(cryptoService.getLatestPrice("ETH")).thenReturn(Optional.of(latest("ETH", 3800.0)));
+        service.onPriceDataChanged(new PriceDataChangedEvent("ETH", 0, 1));
+        service.publish();
+        deliver();
+
+        // The failed batch is lost, but the stream is not stuck: the next change reaches the client
+        assertEquals(List.of("tick", "stats", "rankings"), emitters.get(0).names);
+        assertEquals(latest("ETH", 3800.0), emitters.get(0).data.get(0));
+    }
+
+    @Test
+    void shouldRetryDeliveryRejectedByBusyExecutor() {
+        rejecting = true;
+        service.subscribe(List.of("ETH"));
+        assertEquals(List.of(), deliveries);
+
+        rejecting = false;
+        service.publish();
+        deliver();
+
+        assertEquals(List.of("tick", "stats", "rankings"), emitters.get(0).names);
+    }
+
+    private void deliver() {
+        while (!deliveries.isEmpty()) {
+            deliveries.remove(0).run();
+        }
+    }
+
+    private static LatestPrice latest(String symbol, double price) {
+        return new LatestPrice(symbol, price, Instant.parse("2022-01-01T04:00:00Z"));
+    }
+
+    // Records the name and data of each event instead of writing it to a response
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> names = new ArrayList<>();
+        private final List<Object> data = new ArrayList<>();
+        // Runs inside the next send, standing in for a client that stopped reading
+        private Runnable onSend;
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (onSend != null) {
+                onSend.run();
+            }
+            List<DataWithMediaType> parts = new ArrayList<>(builder.build());
+            String head = (String) parts.get(0).getData();
+            if (head.startsWith("event:")) {
+                names.add(head.substring("event:".length(), head.indexOf('\n')));
+                data.add(parts.stream().filter(part -> part.getMediaType() == null || !MediaType.TEXT_PLAIN.equals(part.getMediaType()))
+                        .map(DataWithMediaType::getData).filter(value -> !(value instanceof String)).findFirst().orElse(null));
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        void clear() {
+            names.clear();
+            data.clear();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.crypto.recommendations.crypto_recommendation_service.service;
+
+import org.crypto.recommendations.crypto_recommendation_service.model.PriceRollup;
+import org.crypto.recommendations.crypto_recommendation_service.model.RollupGranularity;
+import org.crypto.recommendations.crypto_recommendation_service.repository.PriceRollupJdbcRepository;
+import org.crypto.recommendations.crypto_recommendation_service.repository.PriceRollupRepository;
+import org.crypto.recommendations.crypto_recommendation_service.store.PriceSeries;
+import org.crypto.recommendations.crypto_recommendation_service.store.PriceStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class RollupServiceTest {
+
+    private static final Instant DAY = Instant.parse("2022-01-03T00:00:00Z"); // a Monday
+
+    @Mock
+    private PriceRollupRepository priceRollupRepository;
+
+    @Mock
+    private PriceRollupJdbcRepository priceRollupJdbcRepository;
+
+    private PriceStore priceStore;
+    private RollupService rollupService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        priceStore = new PriceStore();
+        rollupService = new RollupService(priceRollupRepository, priceRollupJdbcRepository, priceStore);
+    }
+
+    @Test
+    void shouldBuildOhlcBarsPerGranularity() {
+        PriceSeries series = priceStore.getOrCreate("BTC");
+        series.put(DAY.plusSeconds(600).toEpochMilli(), 100.0);
+        series.put(DAY.plusSeconds(1200).toEpochMilli(), 120.0);
+        series.put(DAY.plusSeconds(3600 + 60).toEpochMilli(), 90.0);
+        series.put(DAY.plusSeconds(3600 + 120).toEpochMilli(), 95.0);
+
+        rollupService.refresh("BTC", series.firstTimestamp(), series.lastTimestamp());
+
+        List<PriceRollup> hourly = savedBars(RollupGranularity.HOURLY);
+        assertEquals(2, hourly.size());
+        assertBar(hourly.get(0), DAY, 100.0, 120.0, 100.0, 120.0, 2);
+        assertBar(hourly.get(1), DAY.plusSeconds(3600), 90.0, 95.0, 90.0, 95.0, 2);
+
+        List<PriceRollup> daily = savedBars(RollupGranularity.DAILY);
+        assertEquals(1, daily.size());
+        assertBar(daily.get(0), DAY, 100.0, 120.0, 90.0, 95.0, 4);
+
+        List<PriceRollup> weekly = savedBars(RollupGranularity.WEEKLY);
+        assertEquals(1, weekly.size());
+        assertBar(weekly.get(0), DAY, 100.0, 120.0, 90.0, 95.0, 4);
+    }
+
+    @Test
+    void shouldUpsertAllBarsInOneCallWithoutReadingExistingOnes() {
+        PriceSeries series = priceStore.getOrCreate("BTC");
+        series.put(DAY.plusSeconds(600).toEpochMilli(), 100.0);
+
+        rollupService.refresh("BTC", series.firstTimestamp(), series.lastTimestamp());
+
+        assertEquals(RollupGranularity.values().length, savedBars(null).size());
+        verifyNoInteractions(priceRollupRepository);
+    }
+
+    @Test
+    void shouldAlignWeeksToMonday() {
+        long thursday = Instant.parse("2022-01-06T12:00:00Z").toEpochMilli();
+
+        assertEquals(DAY.toEpochMilli(), RollupGranularity.WEEKLY.bucketStart(thursday));
+        assertEquals(Instant.parse("2022-01-06T00:00:00Z").toEpochMilli(), RollupGranularity.DAILY.bucketStart(thursday));
+        assertEquals(Instant.parse("2022-01-06T12:00:00Z").toEpochMilli(), RollupGranularity.HOURLY.bucketStart(thursday));
+    }
+
+    // Bars of the granularity, or all of them if null, passed to the single upsert of a refresh
+    @SuppressWarnings("unchecked")
+    private List<PriceRollup> savedBars(RollupGranularity granularity) {
+        ArgumentCaptor<Collection<PriceRollup>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(priceRollupJdbcRepository).upsertAll(captor.capture());
+        List<PriceRollup> bars = new ArrayList<>();
+        for (PriceRollup bar : captor.getValue()) {
+            if (granularity == null || bar.getGranularity() == granularity) {
+                bars.add(bar);
+            }
+        }
+        return bars;
+    }
+
+    private static void assertBar(PriceRollup bar, Instant bucketStart, double open, double high, double low, double close, long count) {
+        assertEquals(bucketStart, bar.getBucketStart());
+        assertEquals(open, bar.getOpen());
+        assertEquals(high, bar.getHigh());
+        assertEquals(low, bar.getLow());
+        assertEquals(close, bar.getClose());
+        assertEquals(count, bar.getCount());
+    }
+}
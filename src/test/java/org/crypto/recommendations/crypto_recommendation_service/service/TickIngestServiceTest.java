@@ -0,0 +1,168 @@
+package org.crypto.recommendations.crypto_recommendation_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.crypto.recommendations.crypto_recommendation_service.config.CryptoConfig;
+import org.crypto.recommendations.crypto_recommendation_service.repository.CryptoPriceJdbcRepository;
+import org.crypto.recommendations.crypto_recommendation_service.store.PriceSeries;
+import org.crypto.recommendations.crypto_recommendation_service.store.PriceVisitor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TickIngestServiceTest {
+
+    private static final long T0 = 1641009600000L;
+
+    @Mock
+    private CryptoService cryptoService;
+
+    @Mock
+    private CryptoPriceJdbcRepository cryptoPriceJdbcRepository;
+
+    @Mock
+    private CryptoPriceJdbcRepository.Batch batch;
+
+    @Mock
+    private RollupService rollupService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final CryptoConfig cryptoConfig = new CryptoConfig();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PriceSeries btc = new PriceSeries("BTC");
+    private final PriceSeries eth = new PriceSeries("ETH");
+    private volatile PriceVisitor committed;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        cryptoConfig.register("BTC", "BTC");
+        cryptoConfig.register("ETH", "ETH");
+        when(cryptoService.seriesForIngest("BTC")).thenReturn(btc);
+        when(cryptoService.seriesForIngest("ETH")).thenReturn(eth);
+        when(cryptoPriceJdbcRepository.openBatch(any())).thenReturn(batch);
+        // Hands each added row straight to the commit visitor, as a batch that commits at once would
+        doAnswer(invocation -> committed = invocation.getArgument(0)).when(batch).onCommit(any());
+        doAnswer(invocation -> {
+            committed.visit(invocation.getArgument(0), invocation.getArgument(1));
+            return null;
+        }).when(batch).add(anyLong(), anyDouble());
+    }
+
+    @Test
+    void shouldWriteAcceptedTicksCoalescedAndServeThemOnceWritten() throws IOException {
+        TickIngestService service = service(100, 10);
+
+        int accepted = service.accept(body("[{\"symbol\":\"BTC\",\"price\":46813.21,\"timestamp\":\"2022-01-01T04:00:00Z\"},"
+                + "{\"symbol\":\"ETH\",\"price\":3715.32,\"timestamp\":\"2022-01-01T04:00:00Z\"}]"));
+        accepted += service.accept(body("{\"symbol\":\"BTC\",\"price\":46900.0,\"timestamp\":\"2022-01-01T04:00:00Z\"}\n"
+                + "{\"symbol\":\"BTC\",\"price\":47000.0,\"timestamp\":\"2022-01-01T05:00:00Z\"}\n"));
+
+        // Not served, nor announced, before the writer has written them
+        assertEquals(4, accepted);
+        assertTrue(btc.isEmpty());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+
+        service.start();
+        service.stop();
+
+        assertEquals(46900.0, btc.aggregate().getMin());
+        assertEquals(47000.0, btc.latest().getPrice());
+        verify(eventPublisher, times(1)).publishEvent(argThat((Object event) -> event instanceof PriceDataChangedEvent
+                && ((PriceDataChangedEvent) event).getSymbol().equals("ETH")));
+
+        // The two BTC ticks at 04:00 are written once, with the later price
+        verify(batch, times(1)).add(T0, 46900.0);
+        verify(batch, never()).add(T0, 46813.21);
+        verify(batch, times(1)).add(T0 + 3_600_000L, 47000.0);
+        verify(batch, times(1)).add(T0, 3715.32);
+        verify(rollupService, times(1)).refresh("BTC", T0, T0 + 3_600_000L);
+        verify(rollupService, times(1)).refresh("ETH", T0, T0);
+    }
+
+    @Test
+    void shouldRejectTicksThatDoNotFitWithoutApplyingThem() throws IOException {
+        TickIngestService service = service(2, 2);
+
+        service.accept(body("[{\"symbol\":\"BTC\",\"price\":1.0,\"timestamp\":\"2022-01-01T04:00:00Z\"},"
+                + "{\"symbol\":\"BTC\",\"price\":2.0,\"timestamp\":\"2022-01-01T05:00:00Z\"}]"));
+
+        assertThrows(TickBufferFullException.class, () ->
+                service.accept(body("{\"symbol\":\"ETH\",\"price\":3.0,\"timestamp\":\"2022-01-01T04:00:00Z\"}")));
+        assertTrue(eth.isEmpty());
+        verify(batch, never()).add(anyLong(), anyDouble());
+    }
+
+    @Test
+    void shouldRejectWholeRequestWhenOneTickIsInvalid() {
+        TickIngestService service = service(100, 10);
+
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class, () ->
+                service.accept(body("{\"symbol\":\"BTC\",\"price\":1.0,\"timestamp\":\"2022-01-01T04:00:00Z\"}\n"
+                        + "{\"symbol\":\"NOPE\",\"price\":1.0,\"timestamp\":\"2022-01-01T04:00:00Z\"}")));
+        assertThrows(IllegalArgumentException.class, () -> service.accept(body("{\"symbol\":\"BTC\",\"price\":1.0}")));
+        assertThrows(IllegalArgumentException.class, () -> service.accept(body("[{\"symbol\":")));
+        assertThrows(IllegalArgumentException.class, () ->
+                service.accept(body("{\"symbol\":\"BTC\",\"price\":1.0,\"timestamp\":\"1969-12-31T23:59:59Z\"}")));
+        assertThrows(IllegalArgumentException.class, () ->
+                service.accept(body("{\"symbol\":\"BTC\",\"price\":1.0,\"timestamp\":\"+10000-01-01T00:00:00Z\"}")));
+
+        assertEquals("Invalid cryptocurrency symbol: NOPE", unknown.getMessage());
+        assertTrue(btc.isEmpty());
+    }
+
+    @Test
+    void shouldDropTickTheDatabaseKeepsRejectingAndWriteTheRest() throws IOException {
+        doThrow(new IllegalStateException("rejected")).when(batch).add(T0, 3715.32);
+        TickIngestService service = service(100, 10);
+        service.start();
+
+        service.accept(body("[{\"symbol\":\"BTC\",\"price\":46813.21,\"timestamp\":\"2022-01-01T04:00:00Z\"},"
+                + "{\"symbol\":\"ETH\",\"price\":3715.32,\"timestamp\":\"2022-01-01T04:00:00Z\"}]"));
+
+        // Three attempts of the whole batch, then one tick at a time; the writer then goes on with new ticks
+        verify(rollupService, timeout(5000).times(4)).refresh("BTC", T0, T0);
+        service.accept(body("{\"symbol\":\"BTC\",\"price\":47000.0,\"timestamp\":\"2022-01-01T05:00:00Z\"}"));
+        verify(batch, timeout(5000)).add(T0 + 3_600_000L, 47000.0);
+        service.stop();
+
+        verify(batch, times(4)).add(T0, 3715.32);
+        verify(rollupService, never()).refresh(eq("ETH"), anyLong(), anyLong());
+        assertTrue(eth.isEmpty());
+        assertEquals(1.0, meterRegistry.get("crypto.ticks.dropped").counter().count());
+    }
+
+    private TickIngestService service(int capacity, int maxPerRequest) {
+        return new TickIngestService(cryptoConfig, cryptoService, cryptoPriceJdbcRepository, rollupService, eventPublisher,
+                meterRegistry, Jackson2ObjectMapperBuilder.json().build(), capacity, Math.min(capacity, 100), 10, maxPerRequest, 3);
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,98 @@
+package org.crypto.recommendations.crypto_recommendation_service.store;
+
+import org.crypto.recommendations.crypto_recommendation_service.model.PricePoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LttbDownsamplerTest {
+
+    @Test
+    void shouldMatchReferenceImplementation() {
+        Random random = new Random(42);
+        for (int n : new int[]{5, 17, 1000, 4099}) {
+            long[] timestamps = new long[n];
+            double[] prices = new double[n];
+            long timestamp = 1641009600000L;
+            double price = 100;
+            for (int i = 0; i < n; i++) {
+                timestamp += 1 + random.nextInt(3_600_000);
+                price += random.nextGaussian();
+                timestamps[i] = timestamp;
+                prices[i] = price;
+            }
+
+            for (int threshold : new int[]{3, 4, 10, 100}) {
+                LttbDownsampler downsampler = new LttbDownsampler(n, threshold);
+                for (int i = 0; i < n; i++) {
+                    downsampler.visit(timestamps[i], prices[i]);
+                }
+                List<PricePoint> actual = downsampler.finish();
+
+                List<Long> expected = reference(timestamps, prices, threshold);
+                assertEquals(expected.size(), actual.size(), "n=" + n + " threshold=" + threshold);
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(expected.get(i).longValue(), actual.get(i).getTimestamp().toEpochMilli(), "n=" + n + " threshold=" + threshold);
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldKeepEverythingBelowThreshold() {
+        LttbDownsampler downsampler = new LttbDownsampler(3, 10);
+        downsampler.visit(1L, 1.0);
+        downsampler.visit(2L, 2.0);
+        downsampler.visit(3L, 3.0);
+
+        assertEquals(3, downsampler.finish().size());
+    }
+
+    // Textbook array-based LTTB, returning the kept timestamps
+    private static List<Long> reference(long[] timestamps, double[] prices, int threshold) {
+        int n = timestamps.length;
+        List<Long> kept = new ArrayList<>();
+        if (threshold >= n) {
+            for (long timestamp : timestamps) {
+                kept.add(timestamp);
+            }
+            return kept;
+        }
+        int buckets = threshold - 2;
+        int a = 0;
+        kept.add(timestamps[0]);
+        for (int b = 0; b < buckets; b++) {
+            int start = (int) ((long) b * (n - 2) / buckets) + 1;
+            int end = (int) ((long) (b + 1) * (n - 2) / buckets) + 1;
+            int nextStart = end;
+            int nextEnd = b + 1 < buckets ? (int) ((long) (b + 2) * (n - 2) / buckets) + 1 : n;
+            double averageTimestamp = 0;
+            double averagePrice = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageTimestamp += timestamps[i];
+                averagePrice += prices[i];
+            }
+            averageTimestamp /= nextEnd - nextStart;
+            averagePrice /= nextEnd - nextStart;
+
+            double best = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((timestamps[a] - averageTimestamp) * (prices[i] - prices[a])
+                        - (timestamps[a] - timestamps[i]) * (averagePrice - prices[a]));
+                if (area > best) {
+                    best = area;
+                    chosen = i;
+                }
+            }
+            kept.add(timestamps[chosen]);
+            a = chosen;
+        }
+        kept.add(timestamps[n - 1]);
+        return kept;
+    }
+}
@@ -0,0 +1,257 @@
+package org.crypto.recommendations.crypto_recommendation_service.store;
+
+import org.crypto.recommendations.crypto_recommendation_service.model.LatestPrice;
+import org.crypto.recommendations.crypto_recommendation_service.model.WindowedRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceSeriesTest {
+
+    private PriceSeries series;
+
+    @BeforeEach
+    void setUp() {
+        series = new PriceSeries("BTC");
+    }
+
+    @Test
+    void shouldKeepTicksOrderedWhenInsertedOutOfOrder() {
+        series.put(3000L, 3.0);
+        series.put(1000L, 1.0);
+        series.put(2000L, 2.0);
+
+        List<Long> timestamps = new ArrayList<>();
+        series.forEach((timestamp, price) -> timestamps.add(timestamp));
+
+        assertEquals(List.of(1000L, 2000L, 3000L), timestamps);
+        assertEquals(1000L, series.firstTimestamp());
+        assertEquals(3000L, series.lastTimestamp());
+    }
+
+    @Test
+    void shouldCacheLatestTickUntilNewestTickChanges() {
+        assertNull(series.latest());
+        series.put(2000L, 2.0);
+        series.put(3000L, 3.0);
+
+        LatestPrice latest = series.latest();
+        assertEquals(3.0, latest.getPrice());
+        assertEquals(Instant.ofEpochMilli(3000L), latest.getTimestamp());
+
+        // An older tick leaves the snapshot in place
+        series.put(1000L, 1.0);
+        assertSame(latest, series.latest());
+
+        series.put(3000L, 3.5);
+        assertEquals(3.5, series.latest().getPrice());
+    }
+
+    @Test
+    void shouldCountTicksInRange() {
+        int count = PriceSeries.CHUNK_SIZE * 2 + 10;
+        for (int i = 0; i < count; i++) {
+            series.put(i * 10L, i);
+        }
+
+        assertEquals(count, series.count(Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(5, series.count(10L, 60L));
+        assertEquals(6, series.count(5L, 61L));
+        assertEquals(PriceSeries.CHUNK_SIZE, series.count(PriceSeries.CHUNK_SIZE * 5L, PriceSeries.CHUNK_SIZE * 15L));
+        assertEquals(0, series.count(60L, 60L));
+    }
+
+    @Test
+    void shouldReplacePriceForExistingTimestamp() {
+        assertTrue(series.put(1000L, 1.0));
+        assertFalse(series.put(1000L, 5.0));
+
+        assertEquals(1, series.size());
+        assertEquals(5.0, series.maxPrice());
+        assertEquals(5.0, series.minPrice());
+    }
+
+    @Test
+    void shouldSplitFullChunksOnOutOfOrderInsert() {
+        int count = PriceSeries.CHUNK_SIZE * 3;
+        for (int i = 0; i < count; i++) {
+            series.put(i * 10L, i);
+        }
+        // Lands in the middle of the first, already full chunk
+        series.put(15L, -1.0);
+
+        long[] previous = {Long.MIN_VALUE};
+        int[] visited = {0};
+        series.forEach((timestamp, price) -> {
+            assertTrue(timestamp > previous[0]);
+            previous[0] = timestamp;
+            visited[0]++;
+        });
+
+        assertEquals(count + 1, series.size());
+        assertEquals(count + 1, visited[0]);
+        assertEquals(-1.0, series.minPrice());
+    }
+
+    @Test
+    void shouldMaintainAggregatesOnWrite() {
+        series.put(2000L, 20.0);
+        series.put(1000L, 10.0);
+        series.put(3000L, 30.0);
+
+        PriceAggregate aggregate = series.aggregate();
+
+        assertEquals(3, aggregate.getCount());
+        assertEquals(60.0, aggregate.getSum());
+        assertEquals(10.0, aggregate.getMin());
+        assertEquals(30.0, aggregate.getMax());
+        assertEquals(1000L, aggregate.getOldestMillis());
+        assertEquals(3000L, aggregate.getNewestMillis());
+        assertEquals(2.0, aggregate.normalizedRange());
+    }
+
+    @Test
+    void shouldReconcileAggregatesWhenExtremesAreReplaced() {
+        series.put(1000L, 10.0);
+        series.put(2000L, 20.0);
+        series.put(3000L, 30.0);
+
+        // Replacing the min and max with less extreme prices must not leave stale extremes behind
+        series.put(1000L, 15.0);
+        series.put(3000L, 25.0);
+        // Reloading an unchanged row must not double count
+        series.put(2000L, 20.0);
+
+        PriceAggregate aggregate = series.aggregate();
+
+        assertEquals(3, aggregate.getCount());
+        assertEquals(60.0, aggregate.getSum());
+        assertEquals(15.0, aggregate.getMin());
+        assertEquals(25.0, aggregate.getMax());
+    }
+
+    @Test
+    void shouldScanHalfOpenRange() {
+        for (int i = 0; i < 10; i++) {
+            series.put(i * 1000L, i);
+        }
+
+        List<Double> prices = new ArrayList<>();
+        series.scan(2000L, 5000L, (timestamp, price) -> prices.add(price));
+
+        assertEquals(List.of(2.0, 3.0, 4.0), prices);
+    }
+
+    @Test
+    void shouldMatchBruteForceWindowRangesAcrossOutOfOrderAndReplacedTicks() {
+        long[] lengths = {5_000L, 20_000L};
+        List<String> written = new ArrayList<>();
+        PriceSeries windowed = new PriceSeries("BTC", lengths, written::add);
+        TreeMap<Long, Double> expected = new TreeMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 500; i++) {
+            // Mostly appends, with some late ticks and replaced timestamps mixed in
+            long timestamp = i % 10 == 9 ? (i - random.nextInt(30)) * 1000L : i * 1000L;
+            double price = 50 + random.nextInt(100);
+            windowed.put(timestamp, price);
+            expected.put(timestamp, price);
+
+            for (int w = 0; w < lengths.length; w++) {
+                long last = expected.lastKey();
+                Collection<Double> inWindow = expected.subMap(last - lengths[w], false, last, true).values();
+                double min = Collections.min(inWindow);
+                double max = Collections.max(inWindow);
+
+                WindowedRange range = windowed.windowRange(w);
+                assertEquals(min, range.getMin());
+                assertEquals(max, range.getMax());
+                assertEquals((max - min) / min, range.getNormalizedRange());
+                assertEquals(Instant.ofEpochMilli(last), range.getTo());
+            }
+        }
+        assertEquals(500, written.size());
+    }
+
+    @Test
+    void shouldSummarizeRangesLikeABruteForcePass() {
+        Random random = new Random(11);
+        // Four days of ticks every ten minutes
+        for (int i = 0; i < 4 * 144; i++) {
+            double price = 100 + random.nextGaussian() * 5;
+            series.put(i * 600_000L, price);
+        }
+
+        long[][] ranges = {{0, Long.MAX_VALUE}, {3_600_000L, 3 * PriceSeries.DAY_MILLIS + 7_200_000L}, {600_000L, 1_800_000L}};
+        for (long[] range : ranges) {
+            List<Double> prices = new ArrayList<>();
+            series.scan(range[0], range[1], (timestamp, price) -> prices.add(price));
+
+            // Twice, so the second pass reads the cached day summaries
+            for (int pass = 0; pass < 2; pass++) {
+                PriceSummary summary = series.summarize(range[0], range[1]);
+
+                double mean = prices.stream().mapToDouble(Double::doubleValue).average().orElse(Double.NaN);
+                double variance = prices.stream().mapToDouble(price -> (price - mean) * (price - mean)).sum() / (prices.size() - 1);
+                List<Double> returns = new ArrayList<>();
+                for (int i = 1; i < prices.size(); i++) {
+                    returns.add(Math.log(prices.get(i) / prices.get(i - 1)));
+                }
+                double returnMean = returns.stream().mapToDouble(Double::doubleValue).average().orElse(Double.NaN);
+                double volatility = Math.sqrt(returns.stream().mapToDouble(r -> (r - returnMean) * (r - returnMean)).sum() / (returns.size() - 1));
+
+                assertEquals(prices.size(), summary.getCount());
+                assertEquals(Collections.min(prices), summary.getMin());
+                assertEquals(Collections.max(prices), summary.getMax());
+                assertEquals(mean, summary.getMean(), 1e-9);
+                assertEquals(variance, summary.variance(), 1e-6);
+                assertEquals(returns.size() < 2 ? Double.NaN : volatility, summary.volatility(), 1e-12);
+
+                List<Double> sorted = new ArrayList<>(prices);
+                Collections.sort(sorted);
+                double p95 = sorted.get((int) Math.ceil(0.95 * sorted.size()) - 1);
+                assertEquals(p95, summary.quantile(0.95), 1.0);
+            }
+        }
+    }
+
+    @Test
+    void shouldDropCachedDaySummaryWhenItsDayIsWritten() {
+        series.put(0L, 10.0);
+        series.put(PriceSeries.DAY_MILLIS / 2, 20.0);
+        series.put(PriceSeries.DAY_MILLIS, 30.0);
+        assertEquals(20.0, series.summarize(0, PriceSeries.DAY_MILLIS).getMax());
+
+        series.put(PriceSeries.DAY_MILLIS / 2, 50.0);
+
+        PriceSummary summary = series.summarize(0, PriceSeries.DAY_MILLIS);
+        assertEquals(2, summary.getCount());
+        assertEquals(50.0, summary.getMax());
+        assertEquals(30.0, summary.getMean());
+    }
+
+    @Test
+    void shouldHaveNoWindowRangeWhenEmpty() {
+        assertNull(new PriceSeries("BTC", new long[]{1000L}, symbol -> {}).windowRange(0));
+    }
+
+    @Test
+    void shouldRejectStatisticsOnEmptySeries() {
+        assertTrue(series.isEmpty());
+        assertThrows(IllegalStateException.class, () -> series.minPrice());
+    }
+}
@@ -0,0 +1,124 @@
+package org.crypto.recommendations.crypto_recommendation_service.store;
+
+import org.crypto.recommendations.crypto_recommendation_service.model.CryptoPrice;
+import org.crypto.recommendations.crypto_recommendation_service.model.WindowedRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceStoreTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    private PriceStore priceStore;
+
+    @BeforeEach
+    void setUp() {
+        priceStore = new PriceStore(List.of(Duration.ofHours(1), Duration.ofHours(24)));
+    }
+
+    @Test
+    void shouldRankSymbolsByRangeWithinWindow() {
+        // BTC swung widely a day ago but is flat over the last hour; ETH is the other way round
+        priceStore.getOrCreate("BTC").put(0L, 100.0);
+        priceStore.getOrCreate("BTC").put(5 * HOUR / 2, 300.0);
+        priceStore.getOrCreate("BTC").put(3 * HOUR, 301.0);
+        priceStore.getOrCreate("ETH").put(0L, 100.0);
+        priceStore.getOrCreate("ETH").put(5 * HOUR / 2, 100.0);
+        priceStore.getOrCreate("ETH").put(3 * HOUR, 110.0);
+        priceStore.getOrCreate("XRP").put(3 * HOUR, 1.0);
+
+        assertEquals(List.of("ETH", "BTC", "XRP"), symbols(priceStore.topByWindowedRange(Duration.ofHours(1), 10)));
+        assertEquals(List.of("BTC", "ETH"), symbols(priceStore.topByWindowedRange(Duration.ofHours(24), 2)));
+
+        WindowedRange btc = priceStore.topByWindowedRange(Duration.ofHours(24), 1).get(0);
+        assertEquals(100.0, btc.getMin());
+        assertEquals(301.0, btc.getMax());
+        assertEquals(2.01, btc.getNormalizedRange(), 1e-9);
+    }
+
+    @Test
+    void shouldReRankSymbolsAsTicksArrive() {
+        priceStore.getOrCreate("BTC").put(0L, 100.0);
+        priceStore.getOrCreate("BTC").put(HOUR / 2, 150.0);
+        priceStore.getOrCreate("ETH").put(0L, 100.0);
+        priceStore.getOrCreate("ETH").put(HOUR / 2, 120.0);
+        assertEquals(List.of("BTC", "ETH"), symbols(priceStore.topByWindowedRange(Duration.ofHours(1), 2)));
+
+        // BTC's swing slides out of the hour and ETH's grows
+        priceStore.getOrCreate("BTC").put(2 * HOUR, 151.0);
+        priceStore.getOrCreate("ETH").put(HOUR, 200.0);
+
+        assertEquals(List.of("ETH", "BTC"), symbols(priceStore.topByWindowedRange(Duration.ofHours(1), 2)));
+    }
+
+    @Test
+    void shouldPublishHydratedSeriesOnlyOnceComplete() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<CryptoPrice> prices = List.of(
+                new CryptoPrice(null, "BTC", 100.0, Instant.ofEpochMilli(0L)),
+                new CryptoPrice(null, "BTC", 300.0, Instant.ofEpochMilli(HOUR)),
+                new CryptoPrice(null, "BTC", 200.0, Instant.ofEpochMilli(2 * HOUR)));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<PriceSeries> hydrating = executor.submit(() -> priceStore.hydrate("BTC", symbol -> {
+                loading.countDown();
+                awaitQuietly(release);
+                return prices;
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            // Nothing is visible while the rows are loaded, and a second reader waits instead of loading again
+            Future<PriceSeries> waiting = executor.submit(() -> priceStore.hydrate("BTC", symbol -> {
+                throw new AssertionError("hydrated twice");
+            }));
+            assertNull(priceStore.aggregate("BTC"));
+            assertThrows(TimeoutException.class, () -> waiting.get(100, TimeUnit.MILLISECONDS));
+
+            release.countDown();
+            PriceSeries hydrated = hydrating.get(5, TimeUnit.SECONDS);
+            assertSame(hydrated, waiting.get(5, TimeUnit.SECONDS));
+            PriceAggregate aggregate = priceStore.aggregate("BTC");
+            assertEquals(3, aggregate.getCount());
+            assertEquals(100.0, aggregate.getMin());
+            assertEquals(300.0, aggregate.getMax());
+            assertEquals(List.of("BTC"), symbols(priceStore.topByWindowedRange(Duration.ofHours(24), 10)));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldRejectUnconfiguredWindow() {
+        assertThrows(IllegalArgumentException.class, () -> priceStore.topByWindowedRange(Duration.ofDays(7), 10));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static List<String> symbols(List<WindowedRange> ranges) {
+        return ranges.stream().map(WindowedRange::getSymbol).toList();
+    }
+}
@@ -0,0 +1,62 @@
+package org.crypto.recommendations.crypto_recommendation_service.store;
+
+import org.crypto.recommendations.crypto_recommendation_service.model.PriceTick;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TickBufferTest {
+
+    private static final int BTC = 0;
+    private static final int ETH = 1;
+
+    @Test
+    void shouldAcceptWholeBatchesOnlyAndDrainInOrderAcrossTheWrap() throws InterruptedException {
+        TickBuffer buffer = new TickBuffer(3);
+        assertTrue(buffer.offerAll(List.of(tick("BTC", 1000, 1.0), tick("ETH", 1000, 2.0)), new int[]{BTC, ETH}));
+        // Does not fit: nothing is added
+        assertFalse(buffer.offerAll(List.of(tick("BTC", 2000, 3.0), tick("BTC", 3000, 4.0)), new int[]{BTC, BTC}));
+        assertEquals(2, buffer.size());
+
+        int[] symbols = new int[1];
+        long[] timestamps = new long[1];
+        double[] prices = new double[1];
+        assertEquals(1, buffer.drainTo(symbols, timestamps, prices, 0, TimeUnit.MILLISECONDS));
+        assertEquals(BTC, symbols[0]);
+
+        assertTrue(buffer.offerAll(List.of(tick("BTC", 2000, 3.0), tick("BTC", 3000, 4.0)), new int[]{BTC, BTC}));
+        symbols = new int[3];
+        timestamps = new long[3];
+        prices = new double[3];
+        assertEquals(3, buffer.drainTo(symbols, timestamps, prices, 0, TimeUnit.MILLISECONDS));
+        assertArrayEquals(new int[]{ETH, BTC, BTC}, symbols);
+        assertArrayEquals(new long[]{1000, 2000, 3000}, timestamps);
+        assertArrayEquals(new double[]{2.0, 3.0, 4.0}, prices);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void shouldWakeLingeringConsumerOnceBatchIsFull() throws InterruptedException {
+        TickBuffer buffer = new TickBuffer(10);
+        Thread producer = new Thread(() -> buffer.offerAll(List.of(tick("BTC", 1000, 1.0), tick("BTC", 2000, 2.0)), new int[]{BTC, BTC}));
+
+        long start = System.nanoTime();
+        producer.start();
+        int drained = buffer.drainTo(new int[2], new long[2], new double[2], 30, TimeUnit.SECONDS);
+
+        assertEquals(2, drained);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+        producer.join();
+    }
+
+    private static PriceTick tick(String symbol, long timestamp, double price) {
+        return new PriceTick(symbol, price, Instant.ofEpochMilli(timestamp));
+    }
+}
@@ -0,0 +1,162 @@
+package org.crypto.recommendations.crypto_recommendation_service.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CSVLoaderTest {
+
+    @TempDir
+    Path dataDirectory;
+
+    @Test
+    void shouldParseBundledFilesExactlyLikeTheJdkParser() throws Exception {
+        CSVLoader loader = new CSVLoader("");
+
+        for (String symbol : List.of("BTC", "DOGE", "ETH", "LTC", "XRP")) {
+            List<long[]> expected = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    getClass().getClassLoader().getResourceAsStream("data/" + symbol + "_values.csv"), StandardCharsets.UTF_8))) {
+                reader.readLine();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] fields = line.split(",");
+                    expected.add(new long[]{Long.parseLong(fields[0]), Double.doubleToLongBits(Double.parseDouble(fields[2]))});
+                }
+            }
+
+            List<long[]> actual = new ArrayList<>();
+            long rows = loader.streamPricesFromCSV(symbol, (timestamp, price) ->
+                    actual.add(new long[]{timestamp, Double.doubleToLongBits(price)}));
+
+            assertEquals(expected.size(), rows);
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i)[0], actual.get(i)[0]);
+                assertEquals(expected.get(i)[1], actual.get(i)[1], "price bits differ for " + symbol + " row " + i);
+            }
+        }
+    }
+
+    @Test
+    void shouldPreferFilesFromConfiguredDirectory() throws Exception {
+        Files.writeString(dataDirectory.resolve("BTC_values.csv"),
+                "timestamp,symbol,price\r\n1641009600000,BTC,100.5\r\n\r\n1641013200000,BTC,1.25e2\r\n1641016800000,BTC,-0.001");
+        CSVLoader loader = new CSVLoader(dataDirectory.toString());
+
+        List<Double> prices = new ArrayList<>();
+        long rows = loader.streamPricesFromCSV("BTC", (timestamp, price) -> prices.add(price));
+
+        assertEquals(3, rows);
+        assertEquals(List.of(100.5, 125.0, -0.001), prices);
+    }
+
+    @Test
+    void shouldReportMalformedLineNumber() throws Exception {
+        Files.writeString(dataDirectory.resolve("ETH_values.csv"),
+                "timestamp,symbol,price\n1641009600000,ETH,3715.32\n1641013200000,ETH,abc\n");
+        CSVLoader loader = new CSVLoader(dataDirectory.toString());
+
+        MalformedPriceFileException exception = assertThrows(MalformedPriceFileException.class, () ->
+                loader.streamPricesFromCSV("ETH", (timestamp, price) -> {}));
+
+        assertEquals(3, exception.getLineNumber());
+    }
+
+    @Test
+    void shouldFailWhenFileIsMissing() {
+        CSVLoader loader = new CSVLoader(dataDirectory.toString());
+
+        assertThrows(UncheckedIOException.class, () -> loader.streamPricesFromCSV("NOPE", (timestamp, price) -> {}));
+    }
+
+    @Test
+    void shouldCarryPartialLinesAcrossWindows() {
+        byte[] content = "timestamp,symbol,price\n1000,BTC,1.5\n2000,BTC,2.5\n".getBytes(StandardCharsets.US_ASCII);
+        List<Double> prices = new ArrayList<>();
+        PriceCsvParser parser = new PriceCsvParser("test", (timestamp, price) -> prices.add(price));
+
+        // Cut the input in the middle of the second data row
+        int cut = content.length - 5;
+        int consumed = parser.parse(ByteBuffer.wrap(content, 0, cut).slice(), false);
+        parser.parse(ByteBuffer.wrap(content, consumed, content.length - consumed).slice(), true);
+
+        assertEquals(List.of(1.5, 2.5), prices);
+        assertEquals(2, parser.getRows());
+    }
+
+    @Test
+    void shouldResumeFromCursorAndReadOnlyAppendedRows() throws Exception {
+        Path file = dataDirectory.resolve("BTC_values.csv");
+        Files.writeString(file, "timestamp,symbol,price\n1000,BTC,1.5\n2000,BTC,2.5\n");
+        CSVLoader loader = new CSVLoader(dataDirectory.toString());
+        PriceFileCursor cursor = new PriceFileCursor();
+        loader.streamPricesFromCSV("BTC", cursor, (timestamp, price) -> {});
+        long offset = cursor.getOffset();
+        assertEquals(Files.size(file), offset);
+
+        Files.writeString(file, "3000,BTC,3.5\n3000,BTC,oops\n", StandardOpenOption.APPEND);
+        List<Double> prices = new ArrayList<>();
+        PriceFileCursor resumed = new PriceFileCursor(offset, cursor.getLineNumber());
+        MalformedPriceFileException exception = assertThrows(MalformedPriceFileException.class, () ->
+                loader.streamPricesFromCSV("BTC", resumed, (timestamp, price) -> prices.add(price)));
+
+        assertEquals(List.of(3.5), prices);
+        assertEquals(5, exception.getLineNumber());
+        // Left after the last row handed out, not past the malformed line
+        assertEquals(offset + "3000,BTC,3.5\n".length(), resumed.getOffset());
+        assertEquals(4, resumed.getLineNumber());
+    }
+
+    @Test
+    void shouldLeaveHalfWrittenLastLineForTheNextResume() throws Exception {
+        Path file = dataDirectory.resolve("BTC_values.csv");
+        // The writer appending the third line has only got half of it out
+        Files.writeString(file, "timestamp,symbol,price\n1000,BTC,1.5\n2000,BTC,2.5\n30");
+        CSVLoader loader = new CSVLoader(dataDirectory.toString());
+        List<Double> prices = new ArrayList<>();
+        PriceFileCursor cursor = new PriceFileCursor();
+        loader.streamPricesFromCSV("BTC", cursor, (timestamp, price) -> prices.add(price));
+
+        assertEquals(List.of(1.5, 2.5), prices);
+        assertEquals(Files.size(file) - 2, cursor.getOffset());
+        assertEquals(3, cursor.getLineNumber());
+
+        Files.writeString(file, "00,BTC,3.5\n4000,BTC,4.5\n", StandardOpenOption.APPEND);
+        assertEquals(OptionalLong.of(cursor.lineChecksum()), loader.checksumOf("BTC", cursor.getOffset(), cursor.getLineLength()));
+        List<Long> timestamps = new ArrayList<>();
+        PriceFileCursor resumed = new PriceFileCursor(cursor.getOffset(), cursor.getLineNumber());
+        loader.streamPricesFromCSV("BTC", resumed, (timestamp, price) -> timestamps.add(timestamp));
+
+        assertEquals(List.of(3000L, 4000L), timestamps);
+        assertEquals(Files.size(file), resumed.getOffset());
+        assertEquals(5, resumed.getLineNumber());
+    }
+
+    @Test
+    void shouldChecksumTheLastLineOfTheCursor() throws Exception {
+        Files.writeString(dataDirectory.resolve("ETH_values.csv"), "timestamp,symbol,price\n1000,ETH,1.5\n2000,ETH,2.5\n");
+        CSVLoader loader = new CSVLoader(dataDirectory.toString());
+        PriceFileCursor cursor = new PriceFileCursor();
+        loader.streamPricesFromCSV("ETH", cursor, (timestamp, price) -> {});
+
+        assertEquals("2000,ETH,2.5\n".length(), cursor.getLineLength());
+        assertEquals(OptionalLong.of(cursor.lineChecksum()), loader.checksumOf("ETH", cursor.getOffset(), cursor.getLineLength()));
+        assertNotEquals(OptionalLong.of(cursor.lineChecksum()), loader.checksumOf("ETH", cursor.getOffset() - 1, cursor.getLineLength()));
+        assertEquals(OptionalLong.empty(), loader.checksumOf("ETH", cursor.getOffset() + 1, cursor.getLineLength()));
+    }
+}